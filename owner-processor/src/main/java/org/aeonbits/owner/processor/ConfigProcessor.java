@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner.processor;
+
+import static javax.tools.Diagnostic.Kind.ERROR;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import org.aeonbits.owner.Accessible;
+import org.aeonbits.owner.Config;
+import org.aeonbits.owner.Config.ConverterClass;
+import org.aeonbits.owner.Config.DefaultValue;
+import org.aeonbits.owner.Config.DefaultValues;
+import org.aeonbits.owner.Config.Group;
+import org.aeonbits.owner.Config.Key;
+import org.aeonbits.owner.Config.Separator;
+import org.aeonbits.owner.Config.Sources;
+import org.aeonbits.owner.Config.TokenizerClass;
+import org.aeonbits.owner.ConfigMetadata;
+import org.aeonbits.owner.Mutable;
+import org.aeonbits.owner.Reloadable;
+
+/**
+ * Annotation processor generating a {@link ConfigMetadata} implementation for every {@link Config} interface being
+ * compiled, so that keys, default values and sources don't need to be read by reflection at runtime.
+ * <p/>
+ * The processor also reports at compile time the annotation misuses that would otherwise fail at runtime.
+ *
+ * @author Luigi R. Viggiano
+ * @since 1.0.11
+ */
+@SupportedAnnotationTypes("*")
+public class ConfigProcessor extends AbstractProcessor {
+
+    private static final String KEY_SEPARATOR = ".";
+
+    private static final List<String> LIBRARY_INTERFACES = Arrays.asList(Config.class.getName(),
+            Accessible.class.getName(), Mutable.class.getName(), Reloadable.class.getName());
+
+    private Elements elements;
+    private Types types;
+    private TypeMirror configType;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        elements = processingEnv.getElementUtils();
+        types = processingEnv.getTypeUtils();
+        TypeElement config = elements.getTypeElement(Config.class.getName());
+        if (config == null)
+            return false;
+        configType = types.erasure(config.asType());
+
+        for (Element element : roundEnv.getRootElements())
+            processType(element);
+        return false;
+    }
+
+    private void processType(Element element) {
+        if (element.getKind() == ElementKind.INTERFACE && isConfig(element)
+                && !LIBRARY_INTERFACES.contains(((TypeElement) element).getQualifiedName().toString()))
+            generate((TypeElement) element);
+
+        for (Element enclosed : element.getEnclosedElements())
+            if (enclosed.getKind().isClass() || enclosed.getKind().isInterface())
+                processType(enclosed);
+    }
+
+    private boolean isConfig(Element element) {
+        return types.isAssignable(types.erasure(element.asType()), configType);
+    }
+
+    private void generate(TypeElement type) {
+        Map<String, String> keys = new LinkedHashMap<String, String>();
+        Map<String, Object> defaults = new LinkedHashMap<String, Object>();
+
+        String prefix = groupPrefix(type);
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            TypeElement declaringType = (TypeElement) method.getEnclosingElement();
+            if (!method.getModifiers().contains(Modifier.ABSTRACT)
+                    || LIBRARY_INTERFACES.contains(declaringType.getQualifiedName().toString()))
+                continue;
+
+            validate(method, declaringType);
+
+            Key key = findAnnotation(method, declaringType, Key.class);
+            String fullKey = prefix + (key == null ? method.getSimpleName().toString() : key.value());
+            keys.put(signature(method), fullKey);
+
+            Object defaultValue = defaultValue(method, declaringType);
+            if (defaultValue != null)
+                defaults.put(fullKey, defaultValue);
+        }
+
+        Sources sources = findAnnotation(type, Sources.class);
+        write(type, sources == null ? null : sources.value(), keys, defaults);
+    }
+
+    private String groupPrefix(TypeElement type) {
+        Group group = findAnnotation(type, Group.class);
+        if (group == null)
+            return "";
+        String prefix = group.value();
+        return prefix.endsWith(KEY_SEPARATOR) ? prefix : prefix + KEY_SEPARATOR;
+    }
+
+    private Object defaultValue(ExecutableElement method, TypeElement declaringType) {
+        DefaultValue defaultValue = findAnnotation(method, declaringType, DefaultValue.class);
+        if (defaultValue != null)
+            return defaultValue.value();
+
+        DefaultValues defaultValues = findAnnotation(method, declaringType, DefaultValues.class);
+        if (defaultValues != null)
+            return defaultValues.value();
+
+        return null;
+    }
+
+    private void validate(ExecutableElement method, TypeElement declaringType) {
+        if (method.getAnnotation(DefaultValues.class) != null) {
+            TypeMirror list = types.erasure(elements.getTypeElement(List.class.getName()).asType());
+            if (!types.isAssignable(list, types.erasure(method.getReturnType())))
+                error(method, "@DefaultValues can only be specified on methods returning a java.util.List");
+        }
+
+        if (method.getAnnotation(Separator.class) != null && method.getAnnotation(TokenizerClass.class) != null)
+            error(method, "You cannot specify @Separator and @TokenizerClass both together on method level");
+
+        if (declaringType.getAnnotation(Separator.class) != null
+                && declaringType.getAnnotation(TokenizerClass.class) != null)
+            error(declaringType, "You cannot specify @Separator and @TokenizerClass both together on class level");
+
+        ConverterClass converterClass = method.getAnnotation(ConverterClass.class);
+        if (converterClass != null) {
+            TypeElement converter = converterType(converterClass);
+            if (converter != null && !isInstantiable(converter))
+                error(method, "Converter class %s must be a public class with a public no-arg constructor",
+                        converter.getQualifiedName());
+        }
+    }
+
+    private TypeElement converterType(ConverterClass annotation) {
+        try {
+            annotation.value();
+            return null;
+        } catch (MirroredTypeException e) {
+            TypeMirror mirror = e.getTypeMirror();
+            if (mirror.getKind() != TypeKind.DECLARED)
+                return null;
+            return (TypeElement) ((DeclaredType) mirror).asElement();
+        }
+    }
+
+    private boolean isInstantiable(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)
+                || !type.getModifiers().contains(Modifier.PUBLIC))
+            return false;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements()))
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC))
+                return true;
+        return false;
+    }
+
+    /**
+     * Looks up an annotation on the given type and on its super interfaces, as done at runtime.
+     */
+    private <A extends java.lang.annotation.Annotation> A findAnnotation(TypeElement type, Class<A> annotationClass) {
+        A annotation = type.getAnnotation(annotationClass);
+        if (annotation != null)
+            return annotation;
+
+        for (TypeMirror superInterface : type.getInterfaces()) {
+            Element element = types.asElement(superInterface);
+            if (element instanceof TypeElement && isConfig(element)) {
+                annotation = findAnnotation((TypeElement) element, annotationClass);
+                if (annotation != null)
+                    return annotation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Looks up an annotation on the given method and on the methods it overrides, as done at runtime.
+     */
+    private <A extends java.lang.annotation.Annotation> A findAnnotation(ExecutableElement method,
+            TypeElement declaringType, Class<A> annotationClass) {
+        A annotation = method.getAnnotation(annotationClass);
+        if (annotation != null)
+            return annotation;
+
+        for (TypeMirror superInterface : declaringType.getInterfaces()) {
+            Element element = types.asElement(superInterface);
+            if (!(element instanceof TypeElement) || !isConfig(element))
+                continue;
+            TypeElement superType = (TypeElement) element;
+            for (ExecutableElement candidate : ElementFilter.methodsIn(elements.getAllMembers(superType)))
+                if (sameSignature(method, candidate)) {
+                    annotation = findAnnotation(candidate, (TypeElement) candidate.getEnclosingElement(),
+                            annotationClass);
+                    if (annotation != null)
+                        return annotation;
+                }
+        }
+        return null;
+    }
+
+    private boolean sameSignature(ExecutableElement a, ExecutableElement b) {
+        return a != b && signature(a).equals(signature(b));
+    }
+
+    private String signature(ExecutableElement method) {
+        StringBuilder result = new StringBuilder(method.getSimpleName()).append('(');
+        List<? extends Element> parameters = method.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0)
+                result.append(',');
+            result.append(typeName(types.erasure(parameters.get(i).asType())));
+        }
+        return result.append(')').toString();
+    }
+
+    private String typeName(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY)
+            return typeName(types.erasure(((ArrayType) type).getComponentType())) + "[]";
+        if (type.getKind() == TypeKind.DECLARED)
+            return elements.getBinaryName((TypeElement) ((DeclaredType) type).asElement()).toString();
+        return type.toString();
+    }
+
+    private void write(TypeElement type, String[] sources, Map<String, String> keys, Map<String, Object> defaults) {
+        PackageElement packageElement = elements.getPackageOf(type);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(type).toString();
+        String className = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1)
+                + ConfigMetadata.CLASS_SUFFIX;
+
+        try {
+            PrintWriter out = new PrintWriter(processingEnv.getFiler()
+                    .createSourceFile(binaryName + ConfigMetadata.CLASS_SUFFIX, type).openWriter());
+            try {
+                out.println("// Generated by " + getClass().getName() + ", do not edit.");
+                if (!packageName.isEmpty())
+                    out.println("package " + packageName + ";");
+                out.println();
+                out.println("import java.util.Collections;");
+                out.println("import java.util.HashMap;");
+                out.println("import java.util.Map;");
+                out.println();
+                out.println("import org.aeonbits.owner.ConfigMetadata;");
+                out.println();
+                out.println("public final class " + className + " implements ConfigMetadata {");
+                out.println();
+                out.println("    private static final Map<String, String> KEYS;");
+                out.println();
+                out.println("    static {");
+                out.println("        Map<String, String> keys = new HashMap<String, String>();");
+                for (Map.Entry<String, String> entry : keys.entrySet())
+                    out.println("        keys.put(" + literal(entry.getKey()) + ", " + literal(entry.getValue())
+                            + ");");
+                out.println("        KEYS = Collections.unmodifiableMap(keys);");
+                out.println("    }");
+                out.println();
+                out.println("    public String[] sources() {");
+                out.println("        return " + (sources == null ? "null" : literal(sources)) + ";");
+                out.println("    }");
+                out.println();
+                out.println("    public Map<String, String> keys() {");
+                out.println("        return KEYS;");
+                out.println("    }");
+                out.println();
+                out.println("    public Map<String, Object> defaults() {");
+                out.println("        Map<String, Object> result = new HashMap<String, Object>();");
+                for (Map.Entry<String, Object> entry : defaults.entrySet()) {
+                    Object value = entry.getValue();
+                    String valueLiteral = value instanceof String[] ? literal((String[]) value) : literal(
+                            (String) value);
+                    out.println("        result.put(" + literal(entry.getKey()) + ", " + valueLiteral + ");");
+                }
+                out.println("        return result;");
+                out.println("    }");
+                out.println();
+                out.println("}");
+            } finally {
+                out.close();
+            }
+        } catch (IOException e) {
+            error(type, "Cannot generate %s: %s", className, e.getMessage());
+        }
+    }
+
+    private static String literal(String[] values) {
+        StringBuilder result = new StringBuilder("new String[] {");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0)
+                result.append(',');
+            result.append(' ').append(literal(values[i]));
+        }
+        return result.append(" }").toString();
+    }
+
+    private static String literal(String value) {
+        StringBuilder result = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                result.append("\\\"");
+                break;
+            case '\\':
+                result.append("\\\\");
+                break;
+            case '\n':
+                result.append("\\n");
+                break;
+            case '\r':
+                result.append("\\r");
+                break;
+            case '\t':
+                result.append("\\t");
+                break;
+            default:
+                if (c < 0x20 || c > 0x7e)
+                    result.append(String.format("\\u%04x", (int) c));
+                else
+                    result.append(c);
+            }
+        }
+        return result.append('"').toString();
+    }
+
+    private void error(Element element, String message, Object... args) {
+        processingEnv.getMessager().printMessage(ERROR, String.format(message, args), element);
+    }
+
+}
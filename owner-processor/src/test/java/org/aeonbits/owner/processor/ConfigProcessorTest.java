@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner.processor;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Map;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.aeonbits.owner.Config;
+import org.aeonbits.owner.ConfigMetadata;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Luigi R. Viggiano
+ */
+public class ConfigProcessorTest {
+
+    private File dir;
+
+    @Before
+    public void before() throws IOException {
+        dir = File.createTempFile("ConfigProcessorTest", "");
+        dir.delete();
+        dir.mkdirs();
+    }
+
+    @After
+    public void after() {
+        delete(dir);
+    }
+
+    @Test
+    public void shouldGenerateMetadata() throws Exception {
+        assertEquals("", compile("foo/ServerConfig.java",
+                "package foo;",
+                "import org.aeonbits.owner.Config;",
+                "@Config.Sources({\"file:~/server.properties\", \"classpath:foo/ServerConfig.properties\"})",
+                "@Config.Group(\"server\")",
+                "public interface ServerConfig extends Config, org.aeonbits.owner.Accessible {",
+                "    @DefaultValue(\"80\") int port();",
+                "    @Key(\"host.name\") @DefaultValue(\"local\\\"host\") String hostName();",
+                "    @DefaultValues({\"a\", \"b\"}) java.util.List<String> names();",
+                "    String message(String name, int[] values);",
+                "    interface Nested extends ServerConfig {",
+                "        @DefaultValue(\"8080\") int port();",
+                "    }",
+                "}"));
+
+        ConfigMetadata metadata = metadata("foo.ServerConfig");
+        assertArrayEquals(new String[] { "file:~/server.properties", "classpath:foo/ServerConfig.properties" },
+                metadata.sources());
+        assertEquals("server.port", metadata.keys().get("port()"));
+        assertEquals("server.host.name", metadata.keys().get("hostName()"));
+        assertEquals("server.message", metadata.keys().get("message(java.lang.String,int[])"));
+        assertFalse(metadata.keys().containsKey("getProperty(java.lang.String)"));
+
+        Map<String, Object> defaults = metadata.defaults();
+        assertEquals("80", defaults.get("server.port"));
+        assertEquals("local\"host", defaults.get("server.host.name"));
+        assertArrayEquals(new String[] { "a", "b" }, (String[]) defaults.get("server.names"));
+        assertEquals(3, defaults.size());
+
+        ConfigMetadata nested = metadata("foo.ServerConfig$Nested");
+        assertEquals("server.port", nested.keys().get("port()"));
+        assertEquals("8080", nested.defaults().get("server.port"));
+        assertEquals("local\"host", nested.defaults().get("server.host.name"));
+    }
+
+    @Test
+    public void shouldGenerateNullSourcesWhenNotAnnotated() throws Exception {
+        assertEquals("", compile("bar/Simple.java",
+                "package bar;",
+                "interface Simple extends org.aeonbits.owner.Config {",
+                "    String name();",
+                "}"));
+
+        assertNull(metadata("bar.Simple").sources());
+    }
+
+    @Test
+    public void shouldReportConflictingSeparatorAndTokenizer() throws Exception {
+        String errors = compile("baz/Invalid.java",
+                "package baz;",
+                "import org.aeonbits.owner.Config;",
+                "public interface Invalid extends Config {",
+                "    @Separator(\";\") @TokenizerClass(MyTokenizer.class) String[] values();",
+                "    @DefaultValues(\"a\") String[] other();",
+                "    class MyTokenizer implements org.aeonbits.owner.Tokenizer {",
+                "        public String[] tokens(String values) { return null; }",
+                "    }",
+                "}");
+
+        assertTrue(errors, errors.contains("@Separator and @TokenizerClass"));
+        assertTrue(errors, errors.contains("@DefaultValues"));
+    }
+
+    private String compile(String path, String... lines) throws IOException {
+        File source = new File(dir, path);
+        source.getParentFile().mkdirs();
+        FileWriter writer = new FileWriter(source);
+        try {
+            for (String line : lines)
+                writer.write(line + "\n");
+        } finally {
+            writer.close();
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+        try {
+            String classpath = new File(Config.class.getProtectionDomain().getCodeSource().getLocation().getPath())
+                    .getPath();
+            CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    asList("-d", dir.getPath(), "-s", dir.getPath(), "-classpath", classpath), null,
+                    fileManager.getJavaFileObjects(source));
+            task.setProcessors(asList(new ConfigProcessor()));
+            task.call();
+        } finally {
+            fileManager.close();
+        }
+        StringBuilder errors = new StringBuilder();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics())
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                errors.append(diagnostic.getMessage(null)).append('\n');
+        return errors.toString();
+    }
+
+    private ConfigMetadata metadata(String interfaceName) throws Exception {
+        URLClassLoader classLoader = new URLClassLoader(new URL[] { dir.toURI().toURL() },
+                getClass().getClassLoader());
+        Class<?> generated = classLoader.loadClass(interfaceName + ConfigMetadata.CLASS_SUFFIX);
+        return (ConfigMetadata) generated.newInstance();
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null)
+            for (File child : children)
+                delete(child);
+        file.delete();
+    }
+
+}
@@ -0,0 +1,638 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner;
+
+import static java.util.Collections.unmodifiableSet;
+import static org.aeonbits.owner.Util.eq;
+
+import java.io.ObjectStreamException;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Read-only {@link OwnerProperties} keeping the properties in a few arrays instead of a tree of hash maps, to reduce the
+ * memory needed by configurations with a large number of keys.
+ * <p/>
+ * The keys are stored as a tree of nodes, where every node holds only the last item of its dotted path, so that the
+ * common prefixes are stored once; the equal values are stored once as well. Every distinct path is looked up through
+ * an open-addressed hash table, mapping it to the same value that {@link OwnerProperties#get(String)} would return for
+ * it.
+ * <p/>
+ * The entries, the keys and the values are views walking the top level nodes. The nested maps and the recursive keys
+ * are rebuilt when requested, so they are slower to access than in a plain {@link OwnerProperties}, and the nested maps
+ * returned are copies. Any attempt to modify the properties throws an {@link UnsupportedOperationException}, also
+ * through the default methods added to {@link Map} by Java 8, which are overridden without referring to them, so that
+ * this class still compiles for the older versions.
+ *
+ * @author Luigi R. Viggiano
+ */
+final class CompactOwnerProperties extends OwnerProperties {
+    private static final long serialVersionUID = -1430863017211436478L;
+
+    private static final char KEY_SEPARATOR_CHAR = '.';
+    private static final Object MAP = new Object();
+
+    // the nodes of the key tree, in the iteration order of the source maps (a node precedes its children)
+    private final int[] parents;
+    private final String[] items;
+    private final int[] pathLengths;
+    private final Object[] values;          // MAP for the nested maps
+
+    // the distinct paths, referring to the first node having the path
+    private final int[] entryHashes;
+    private final int[] entryNodes;
+    private final Object[] entryValues;     // MAP for the nested maps, rebuilt from the node
+    private final boolean[] entryTopLevel;
+    private final int[] table;              // entry index + 1, 0 for empty slots
+    private final int size;
+
+    private transient volatile Set<String> recursiveKeys;
+
+    private CompactOwnerProperties(Builder builder, OwnerProperties source) {
+        int nodes = builder.nodeCount;
+        this.parents = copy(builder.parents, nodes);
+        this.items = copy(builder.items, nodes);
+        this.pathLengths = copy(builder.pathLengths, nodes);
+        this.values = new Object[nodes];
+        for (int i = 0; i < nodes; i++)
+            values[i] = builder.values[i] instanceof Map<?, ?> ? MAP : builder.values[i];
+
+        int entries = builder.paths.size();
+        this.entryHashes = new int[entries];
+        this.entryNodes = new int[entries];
+        this.entryValues = new Object[entries];
+        this.entryTopLevel = new boolean[entries];
+        this.table = new int[tableCapacity(entries)];
+        this.size = source.size();
+
+        int entry = 0;
+        for (Map.Entry<String, Integer> path : builder.paths.entrySet()) {
+            String key = path.getKey();
+            Object value = source.get(key);
+            Integer map = builder.mapNodes.get(value); // the same path may be reachable by different nested maps
+            int node = map != null ? map : path.getValue();
+            entryHashes[entry] = key.hashCode();
+            entryNodes[entry] = node;
+            entryValues[entry] = value instanceof Map<?, ?> ? MAP : builder.canonical(value);
+            entryTopLevel[entry] = source.containsKey(key);
+            insert(entry);
+            entry++;
+        }
+    }
+
+    /**
+     * Builds the compact copy of the given properties, which must not be modified while building.
+     */
+    static CompactOwnerProperties of(OwnerProperties source) {
+        Builder builder = new Builder();
+        builder.add(source, -1, null);
+        return new CompactOwnerProperties(builder, source);
+    }
+
+    private static int tableCapacity(int entries) {
+        int capacity = 2;
+        while (capacity < entries * 2)
+            capacity <<= 1;
+        return capacity;
+    }
+
+    private void insert(int entry) {
+        int mask = table.length - 1;
+        int slot = spread(entryHashes[entry]) & mask;
+        while (table[slot] != 0)
+            slot = (slot + 1) & mask;
+        table[slot] = entry + 1;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private int find(String key) {
+        int hash = key.hashCode();
+        int mask = table.length - 1;
+        for (int slot = spread(hash) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int entry = table[slot] - 1;
+            if (entryHashes[entry] == hash && matches(entryNodes[entry], key))
+                return entry;
+        }
+        return -1;
+    }
+
+    /**
+     * @return <tt>true</tt> if the dotted path of the node is equal to the key, comparing it item by item from the end.
+     */
+    private boolean matches(int node, String key) {
+        if (pathLengths[node] != key.length())
+            return false;
+        int end = key.length();
+        while (true) {
+            String item = items[node];
+            int start = end - item.length();
+            if (start < 0 || !key.regionMatches(start, item, 0, item.length()))
+                return false;
+            int parent = parents[node];
+            if (parent < 0)
+                return start == 0;
+            if (pathLengths[parent] == 0) {
+                end = start;
+            } else {
+                if (start == 0 || key.charAt(start - 1) != KEY_SEPARATOR_CHAR)
+                    return false;
+                end = start - 1;
+            }
+            node = parent;
+        }
+    }
+
+    private String path(int node) {
+        StringBuilder result = new StringBuilder(pathLengths[node]);
+        path(result, node);
+        return result.toString();
+    }
+
+    private void path(StringBuilder result, int node) {
+        int parent = parents[node];
+        if (parent >= 0) {
+            path(result, parent);
+            if (pathLengths[parent] > 0)
+                result.append(KEY_SEPARATOR_CHAR);
+        }
+        result.append(items[node]);
+    }
+
+    @Override
+    public Object get(String key) {
+        if (key == null)
+            return null;
+        int entry = find(key);
+        if (entry < 0)
+            return null;
+        Object value = entryValues[entry];
+        return value == MAP ? children(entryNodes[entry]) : value;
+    }
+
+    @Override
+    public boolean containsKey(String key) {
+        if (key == null)
+            return false;
+        int entry = find(key);
+        return entry >= 0 && entryTopLevel[entry];
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (int node = nextTopLevel(0); node < parents.length; node = nextTopLevel(node + 1))
+            if (values[node] == MAP ? value instanceof Map<?, ?> && children(node).equals(value)
+                    : eq(values[node], value))
+                return true;
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Object>>() {
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                return new TopLevelIterator<Map.Entry<String, Object>>() {
+                    @Override
+                    Map.Entry<String, Object> get(int node) {
+                        return new Entry(node);
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof Map.Entry<?, ?>))
+                    return false;
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+                Object key = entry.getKey();
+                return key instanceof String && containsKey((String) key) && eq(get((String) key), entry.getValue());
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new TopLevelIterator<String>() {
+                    @Override
+                    String get(int node) {
+                        return items[node];
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof String && containsKey((String) o);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Collection<Object> values() {
+        return new AbstractCollection<Object>() {
+            @Override
+            public Iterator<Object> iterator() {
+                return new TopLevelIterator<Object>() {
+                    @Override
+                    Object get(int node) {
+                        return value(node);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<String> keySetRecursive() {
+        Set<String> result = recursiveKeys;
+        if (result == null) {
+            Set<String> keys = new LinkedHashSet<String>(entryNodes.length * 4 / 3 + 1);
+            for (int node : entryNodes)
+                keys.add(path(node));
+            recursiveKeys = result = unmodifiableSet(keys);
+        }
+        return result;
+    }
+
+    /**
+     * @return the first top level node starting from the given one, or the number of nodes if there are no more.
+     */
+    private int nextTopLevel(int node) {
+        while (node < parents.length && parents[node] >= 0)
+            node++;
+        return node;
+    }
+
+    private Object value(int node) {
+        Object value = values[node];
+        return value == MAP ? children(node) : value;
+    }
+
+    /**
+     * Rebuilds the map of the given node, <tt>-1</tt> for the top level, taking advantage that the descendants of a
+     * node immediately follow it.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> children(int node) {
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        Map<Integer, Map<String, Object>> maps = new HashMap<Integer, Map<String, Object>>();
+        maps.put(node, result);
+        for (int i = node + 1; i < parents.length; i++) {
+            Map<String, Object> into = maps.get(parents[i]);
+            if (into == null)
+                break;
+            Object value = values[i];
+            if (value == MAP) {
+                Map<String, Object> nested = new LinkedHashMap<String, Object>();
+                maps.put(i, nested);
+                value = nested;
+            }
+            ((Map<String, Object>) into).put(items[i], value);
+        }
+        return result;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        throw readOnly();
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends Object> from) {
+        throw readOnly();
+    }
+
+    @Override
+    public Object remove(Object key) {
+        throw readOnly();
+    }
+
+    @Override
+    public void clear() {
+        throw readOnly();
+    }
+
+    // the default methods of Map added by Java 8, whose implementations in HashMap bypass the methods above
+
+    public Object getOrDefault(Object key, Object defaultValue) {
+        if (!(key instanceof String))
+            return defaultValue;
+        Object value = get((String) key);
+        return value != null || containsKey((String) key) ? value : defaultValue;
+    }
+
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        for (int node = nextTopLevel(0); node < parents.length; node = nextTopLevel(node + 1))
+            action.accept(items[node], value(node));
+    }
+
+    public Object putIfAbsent(String key, Object value) {
+        throw readOnly();
+    }
+
+    public boolean remove(Object key, Object value) {
+        throw readOnly();
+    }
+
+    public boolean replace(String key, Object oldValue, Object newValue) {
+        throw readOnly();
+    }
+
+    public Object replace(String key, Object value) {
+        throw readOnly();
+    }
+
+    public Object computeIfAbsent(String key, Function<? super String, ? extends Object> mappingFunction) {
+        throw readOnly();
+    }
+
+    public Object computeIfPresent(String key,
+            BiFunction<? super String, ? super Object, ? extends Object> remappingFunction) {
+        throw readOnly();
+    }
+
+    public Object compute(String key, BiFunction<? super String, ? super Object, ? extends Object> remappingFunction) {
+        throw readOnly();
+    }
+
+    public Object merge(String key, Object value,
+            BiFunction<? super Object, ? super Object, ? extends Object> remappingFunction) {
+        throw readOnly();
+    }
+
+    public void replaceAll(BiFunction<? super String, ? super Object, ? extends Object> function) {
+        throw readOnly();
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("The properties are read-only");
+    }
+
+    @Override
+    public Object clone() {
+        return new OwnerProperties(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof Map<?, ?>))
+            return false;
+        Map<?, ?> map = (Map<?, ?>) o;
+        if (map.size() != size)
+            return false;
+        for (int node = nextTopLevel(0); node < parents.length; node = nextTopLevel(node + 1)) {
+            String key = items[node];
+            Object value = values[node];
+            if (value == null ? map.get(key) != null || !map.containsKey(key)
+                    : !(value == MAP ? children(node) : value).equals(map.get(key)))
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode(-1);
+    }
+
+    /**
+     * @return the hash code of the map of the given node, as computed by {@link java.util.AbstractMap#hashCode()},
+     * walking its descendants, which immediately follow it and have a parent not preceding it.
+     */
+    private int hashCode(int node) {
+        int result = 0;
+        for (int i = node + 1; i < parents.length && parents[i] >= node; i++)
+            if (parents[i] == node) {
+                Object value = values[i];
+                int valueHash = value == MAP ? hashCode(i) : value == null ? 0 : value.hashCode();
+                result += items[i].hashCode() ^ valueHash;
+            }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        append(result, -1);
+        return result.toString();
+    }
+
+    /**
+     * Appends the map of the given node as {@link java.util.AbstractMap#toString()} does.
+     */
+    private void append(StringBuilder result, int node) {
+        result.append('{');
+        boolean first = true;
+        for (int i = node + 1; i < parents.length && parents[i] >= node; i++)
+            if (parents[i] == node) {
+                if (!first)
+                    result.append(", ");
+                first = false;
+                result.append(items[i]).append('=');
+                if (values[i] == MAP)
+                    append(result, i);
+                else
+                    result.append(values[i]);
+            }
+        result.append('}');
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+        return new OwnerProperties(this);
+    }
+
+    private static int[] copy(int[] array, int length) {
+        int[] result = new int[length];
+        System.arraycopy(array, 0, result, 0, Math.min(length, array.length));
+        return result;
+    }
+
+    private static <T> T[] copy(T[] array, int length) {
+        @SuppressWarnings("unchecked")
+        T[] result = (T[]) java.lang.reflect.Array.newInstance(array.getClass().getComponentType(), length);
+        System.arraycopy(array, 0, result, 0, Math.min(length, array.length));
+        return result;
+    }
+
+    /**
+     * Iterates over the top level nodes.
+     */
+    private abstract class TopLevelIterator<T> implements Iterator<T> {
+        private int next = nextTopLevel(0);
+
+        abstract T get(int node);
+
+        public boolean hasNext() {
+            return next < parents.length;
+        }
+
+        public T next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            int node = next;
+            next = nextTopLevel(node + 1);
+            return get(node);
+        }
+
+        public void remove() {
+            throw readOnly();
+        }
+    }
+
+    /**
+     * A top level property, whose nested map is rebuilt when requested.
+     */
+    private final class Entry implements Map.Entry<String, Object> {
+        private final int node;
+
+        Entry(int node) {
+            this.node = node;
+        }
+
+        public String getKey() {
+            return items[node];
+        }
+
+        public Object getValue() {
+            return value(node);
+        }
+
+        public Object setValue(Object value) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry<?, ?>))
+                return false;
+            Map.Entry<?, ?> that = (Map.Entry<?, ?>) o;
+            return items[node].equals(that.getKey()) && eq(getValue(), that.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            Object value = values[node];
+            return items[node].hashCode() ^ (value == MAP ? CompactOwnerProperties.this.hashCode(node)
+                    : value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return items[node] + "=" + getValue();
+        }
+    }
+
+    /**
+     * Collects the nodes walking the source maps, sharing the equal items and values.
+     */
+    private static final class Builder {
+        int[] parents = new int[64];
+        String[] items = new String[64];
+        int[] pathLengths = new int[64];
+        Object[] values = new Object[64];
+        int nodeCount;
+        final Map<String, Integer> paths = new LinkedHashMap<String, Integer>();
+        final Map<Object, Object> canonical = new HashMap<Object, Object>();
+        final Map<Object, Integer> mapNodes = new IdentityHashMap<Object, Integer>();
+
+        @SuppressWarnings("unchecked")
+        void add(Map<String, Object> map, int parent, String parentPath) {
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                String item = (String) canonical(entry.getKey());
+                Object value = entry.getValue();
+                String path = parentPath == null || parentPath.isEmpty() ? item :
+                        parentPath + KEY_SEPARATOR_CHAR + item;
+                if (value instanceof Map<?, ?>) {
+                    int node = addNode(parent, item, path.length(), value);
+                    mapNodes.put(value, node);
+                    addPath(path, node);
+                    add((Map<String, Object>) value, node, path);
+                } else {
+                    addPath(path, addNode(parent, item, path.length(), canonical(value)));
+                }
+            }
+        }
+
+        private void addPath(String path, int node) {
+            if (!paths.containsKey(path))
+                paths.put(path, node);
+        }
+
+        private int addNode(int parent, String item, int pathLength, Object value) {
+            if (nodeCount == parents.length) {
+                int capacity = nodeCount * 2;
+                parents = copy(parents, capacity);
+                items = copy(items, capacity);
+                pathLengths = copy(pathLengths, capacity);
+                values = copy(values, capacity);
+            }
+            parents[nodeCount] = parent;
+            items[nodeCount] = item;
+            pathLengths[nodeCount] = pathLength;
+            values[nodeCount] = value;
+            return nodeCount++;
+        }
+
+        Object canonical(Object value) {
+            if (value == null || value.getClass().isArray())
+                return value;
+            Object existing = canonical.get(value);
+            if (existing != null)
+                return existing;
+            canonical.put(value, value);
+            return value;
+        }
+    }
+
+}
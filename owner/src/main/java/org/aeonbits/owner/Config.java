@@ -14,10 +14,7 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.aeonbits.owner.Config.HotReloadType.SYNC;
 import static org.aeonbits.owner.Config.LoadType.FIRST;
-import static org.aeonbits.owner.Util.ignore;
-import static org.aeonbits.owner.Util.reverse;
 
-import java.io.IOException;
 import java.io.Serializable;
 import java.lang.annotation.Documented;
 import java.lang.annotation.Inherited;
@@ -112,6 +109,9 @@ public interface Config extends Serializable {
 
     /**
      * Specifies the policy type to use to load the {@link org.aeonbits.owner.Config.Sources} files for properties.
+     * <p/>
+     * When an executor has been set with {@link ConfigFactory#setLoadExecutor(java.util.concurrent.Executor)}, all the
+     * sources are read concurrently, and then used in the same order as if they were read one after the other.
      *
      * @since 1.0.2
      */
@@ -123,16 +123,7 @@ public interface Config extends Serializable {
         FIRST {
             @Override
             OwnerProperties load(List<URL> urls, LoadersManager loaders) {
-                OwnerProperties result = new OwnerProperties();
-                for (URL url : urls)
-                    try {
-                        loaders.load(result, url);
-                        break;
-                    } catch (IOException ex) {
-                        // happens when a file specified in the sources is not found or cannot be read.
-                        ignore();
-                    }
-                return result;
+                return loaders.loadFirst(urls);
             }
         },
 
@@ -143,15 +134,7 @@ public interface Config extends Serializable {
         MERGE {
             @Override
             OwnerProperties load(List<URL> urls, LoadersManager loaders) {
-                OwnerProperties result = new OwnerProperties();
-                for (URL url : reverse(urls))
-                    try {
-                        loaders.load(result, url);
-                    } catch (IOException ex) {
-                        // happens when a file specified in the sources is not found or cannot be read.
-                        ignore();
-                    }
-                return result;
+                return loaders.loadMerged(urls);
             }
         };
 
@@ -261,6 +244,58 @@ public interface Config extends Serializable {
         DisableableFeature[] value();
     }
 
+    /**
+     * Specifies that the values for the methods without parameters are converted in advance, when the config object is
+     * created and every time its properties are reloaded or changed, so that invoking one of those methods only reads
+     * an already converted value.
+     * <p/>
+     * This is useful for config objects heavily read in performance critical code. Methods having the
+     * {@link DisableableFeature#RESULT_CACHING} feature disabled are not affected.
+     *
+     * @since 1.0.11
+     */
+    @Retention(RUNTIME)
+    @Target(TYPE)
+    @Documented
+    @Inherited
+    @interface EagerResolution {
+    }
+
+    /**
+     * Specifies that the properties are kept in a compact read-only store, built when the config object is created,
+     * which takes considerably less memory than the default one for configurations with a large number of keys, at the
+     * cost of slower access to the nested maps and to the list of the property names.
+     * <p/>
+     * The annotation is ignored when the interface extends {@link Mutable} or {@link Reloadable}, or when it is
+     * annotated with {@link HotReload}, since the properties of those config objects can change.
+     *
+     * @since 1.0.11
+     */
+    @Retention(RUNTIME)
+    @Target(TYPE)
+    @Documented
+    @Inherited
+    @interface CompactStorage {
+    }
+
+    /**
+     * Specifies that the properties are loaded when a method of the config object is invoked for the first time,
+     * instead of when the config object is created, so that the config objects never used don't read their sources.
+     * The properties are loaded only once, even if several threads invoke the config object at the same time.
+     * <p/>
+     * The errors reading the properties, that would otherwise be thrown when the config object is created, are thrown
+     * by the first invocation instead. The annotation is ignored when the interface is annotated with
+     * {@link HotReload}, since the properties of those config objects are checked in background.
+     *
+     * @since 1.0.11
+     */
+    @Retention(RUNTIME)
+    @Target(TYPE)
+    @Documented
+    @Inherited
+    @interface LazyLoad {
+    }
+
     /**
      * This enum contains the features that can be disabled using the annotation {@link DisableFeature}.
      *
@@ -335,6 +370,9 @@ public interface Config extends Serializable {
      * Specifies a <tt>{@link Converter}</tt> class to allow the user to define a custom conversion logic for the
      * type returned by the method. If the method returns a collection, the Converter is used to convert a single
      * element.
+     * <p/>
+     * The Converter is instantiated once per method, and the instance is shared by all the threads: it must be thread
+     * safe.
      */
     @Retention(RUNTIME)
     @Target(METHOD)
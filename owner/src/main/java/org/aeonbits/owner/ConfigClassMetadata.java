@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner;
+
+import static java.lang.reflect.Modifier.isPublic;
+import static java.lang.reflect.Proxy.getProxyClass;
+import static java.util.Collections.unmodifiableMap;
+import static org.aeonbits.owner.Config.LoadType.FIRST;
+import static org.aeonbits.owner.Util.getAnnotationCheckInterfaces;
+
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.aeonbits.owner.Config.CompactStorage;
+import org.aeonbits.owner.Config.DisableFeature;
+import org.aeonbits.owner.Config.DisableableFeature;
+import org.aeonbits.owner.Config.EagerResolution;
+import org.aeonbits.owner.Config.LazyLoad;
+import org.aeonbits.owner.Config.Group;
+import org.aeonbits.owner.Config.HotReload;
+import org.aeonbits.owner.Config.Key;
+import org.aeonbits.owner.Config.LoadPolicy;
+import org.aeonbits.owner.Config.LoadType;
+import org.aeonbits.owner.Config.Sources;
+import org.aeonbits.owner.Converters.ConversionKey;
+
+/**
+ * Immutable metadata of a {@link Config} interface: the values derived from its annotations are computed once and
+ * shared by all the instances created for the same interface.
+ * <p/>
+ * When the annotation processor generated a {@link ConfigMetadata} for the interface, it is used in place of reading
+ * the annotations by reflection.
+ * <p/>
+ * The metadata is cached while the interface is loaded: the cache refers to it softly, since it refers to the
+ * interface and a strong reference would keep its class loader alive, so it's collected only when the class loader is
+ * no longer used or the memory runs low, and recomputed if needed again.
+ *
+ * @author Luigi R. Viggiano
+ */
+final class ConfigClassMetadata {
+
+    private static final WeakKeyMap<Class<?>, SoftReference<ConfigClassMetadata>> cache =
+            new WeakKeyMap<Class<?>, SoftReference<ConfigClassMetadata>>();
+
+    private final Class<?> clazz;
+    private final ConfigMetadata generated;
+    private final String keyPrefix;
+    private final String[] sources;
+    private final LoadType loadType;
+    private final HotReload hotReload;
+    private final boolean eagerResolution;
+    private final boolean compactStorage;
+    private final boolean lazyLoad;
+    private final Set<DisableableFeature> disabledFeatures;
+    private final ConcurrentMap<Method, MethodMetadata> methods = new ConcurrentHashMap<Method, MethodMetadata>();
+    private volatile Map<String, Object> defaults;
+    private volatile Constructor<?> proxyConstructor;
+
+    private ConfigClassMetadata(Class<?> clazz) {
+        this.clazz = clazz;
+        this.generated = GeneratedMetadata.lookup(clazz);
+        this.keyPrefix = keyPrefix(getAnnotationCheckInterfaces(clazz, Group.class));
+        this.sources = sources(clazz, generated);
+        LoadPolicy loadPolicy = getAnnotationCheckInterfaces(clazz, LoadPolicy.class);
+        this.loadType = (loadPolicy != null) ? loadPolicy.value() : FIRST;
+        this.hotReload = getAnnotationCheckInterfaces(clazz, HotReload.class);
+        this.eagerResolution = getAnnotationCheckInterfaces(clazz, EagerResolution.class) != null;
+        this.compactStorage = getAnnotationCheckInterfaces(clazz, CompactStorage.class) != null && hotReload == null
+                && !Mutable.class.isAssignableFrom(clazz) && !Reloadable.class.isAssignableFrom(clazz);
+        this.lazyLoad = getAnnotationCheckInterfaces(clazz, LazyLoad.class) != null && hotReload == null;
+        this.disabledFeatures = disabledFeatures(getAnnotationCheckInterfaces(clazz, DisableFeature.class));
+    }
+
+    static ConfigClassMetadata of(Class<?> clazz) {
+        while (true) {
+            SoftReference<ConfigClassMetadata> reference = cache.get(clazz);
+            ConfigClassMetadata metadata = reference == null ? null : reference.get();
+            if (metadata != null)
+                return metadata;
+            metadata = new ConfigClassMetadata(clazz);
+            SoftReference<ConfigClassMetadata> created = new SoftReference<ConfigClassMetadata>(metadata);
+            if (reference == null ? cache.putIfAbsent(clazz, created) == null
+                    : cache.replace(clazz, reference, created))
+                return metadata;
+        }
+    }
+
+    private static String keyPrefix(Group group) {
+        if (group == null)
+            return "";
+        String prefix = group.value();
+        if (!prefix.endsWith(PropertiesMapper.KEY_SEPARATOR))
+            prefix += PropertiesMapper.KEY_SEPARATOR;
+        return prefix;
+    }
+
+    private static String[] sources(Class<?> clazz, ConfigMetadata generated) {
+        if (generated != null)
+            return generated.sources();
+        Sources sources = getAnnotationCheckInterfaces(clazz, Sources.class);
+        return sources != null ? sources.value() : null;
+    }
+
+    private static Set<DisableableFeature> disabledFeatures(DisableFeature annotation) {
+        Set<DisableableFeature> result = EnumSet.noneOf(DisableableFeature.class);
+        if (annotation != null)
+            for (DisableableFeature feature : annotation.value())
+                result.add(feature);
+        return result;
+    }
+
+    /**
+     * @return the value of the {@link Sources} annotation, or <tt>null</tt> if the interface is not annotated.
+     */
+    String[] sources() {
+        return sources == null ? null : sources.clone();
+    }
+
+    LoadType loadType() {
+        return loadType;
+    }
+
+    HotReload hotReload() {
+        return hotReload;
+    }
+
+    boolean isEagerResolution() {
+        return eagerResolution;
+    }
+
+    /**
+     * @return <tt>true</tt> if the properties are kept in a {@link CompactOwnerProperties}, since they never change.
+     */
+    boolean isCompactStorage() {
+        return compactStorage;
+    }
+
+    /**
+     * @return <tt>true</tt> if the properties are loaded on the first invocation of the config object.
+     */
+    boolean isLazyLoad() {
+        return lazyLoad;
+    }
+
+    MethodMetadata method(Method method) {
+        MethodMetadata metadata = methods.get(method);
+        if (metadata == null) {
+            metadata = new MethodMetadata(method);
+            MethodMetadata existing = methods.putIfAbsent(method, metadata);
+            if (existing != null)
+                return existing;
+        }
+        return metadata;
+    }
+
+    /**
+     * @return the default values for the properties, indexed by property key.
+     */
+    Map<String, Object> defaults() {
+        Map<String, Object> result = defaults;
+        if (result == null)
+            defaults = result = unmodifiableMap(computeDefaults());
+        return result;
+    }
+
+    /**
+     * @return the constructor of the proxy class implementing the interface, taking the {@link InvocationHandler}.
+     */
+    Constructor<?> proxyConstructor() throws NoSuchMethodException {
+        Constructor<?> result = proxyConstructor;
+        if (result == null) {
+            Class<?> proxyClass = getProxyClass(clazz.getClassLoader(), clazz);
+            result = proxyClass.getConstructor(InvocationHandler.class);
+            if (!isPublic(proxyClass.getModifiers()))
+                result.setAccessible(true); // the proxy class of a non-public interface is not public
+            proxyConstructor = result;
+        }
+        return result;
+    }
+
+    private Map<String, Object> computeDefaults() {
+        if (generated != null)
+            return generated.defaults();
+
+        Map<String, Object> result = new HashMap<String, Object>();
+        for (Method method : clazz.getMethods()) {
+            Object value = PropertiesMapper.defaultValue(method);
+            if (value != null)
+                result.put(method(method).key(), value);
+        }
+        return result;
+    }
+
+    /**
+     * Metadata of a method of the {@link Config} interface.
+     */
+    final class MethodMetadata {
+        private final Method method;
+        private final String key;
+        private final Set<DisableableFeature> disabledFeatures;
+        private final ConcurrentMap<ConversionKey, Converters> resolvedConverters =
+                new ConcurrentHashMap<ConversionKey, Converters>();
+        private volatile Tokenizer tokenizer;
+        private volatile Object converter;
+
+        private MethodMetadata(Method method) {
+            this.method = method;
+            this.key = key(method);
+            this.disabledFeatures = EnumSet.noneOf(DisableableFeature.class);
+            this.disabledFeatures.addAll(of(method.getDeclaringClass()).disabledFeatures);
+            this.disabledFeatures.addAll(disabledFeatures(getAnnotationCheckInterfaces(method, DisableFeature.class)));
+        }
+
+        private String key(Method method) {
+            if (generated != null) {
+                String result = generated.keys().get(GeneratedMetadata.signature(method));
+                if (result != null)
+                    return result;
+            }
+            Key key = getAnnotationCheckInterfaces(method, Key.class);
+            return keyPrefix + ((key == null) ? method.getName() : key.value());
+        }
+
+        /**
+         * @return the property key, including the {@link Group} prefix of the interface.
+         */
+        String key() {
+            return key;
+        }
+
+        boolean isFeatureDisabled(DisableableFeature feature) {
+            return disabledFeatures.contains(feature);
+        }
+
+        Tokenizer tokenizer() {
+            Tokenizer result = tokenizer;
+            if (result == null)
+                tokenizer = result = TokenizerResolver.resolveTokenizer(method);
+            return result;
+        }
+
+        /**
+         * @return the instance of the {@link Config.ConverterClass} annotating the method, or <tt>null</tt>.
+         */
+        Converter<?> converter() {
+            Object result = converter;
+            if (result == null)
+                converter = result = Converters.newConverter(method);
+            return result == Converters.NULL ? null : (Converter<?>) result;
+        }
+
+        /**
+         * @return the converters found for the values of the method, by target type and value type.
+         */
+        ConcurrentMap<ConversionKey, Converters> resolvedConverters() {
+            return resolvedConverters;
+        }
+    }
+
+}
@@ -10,6 +10,8 @@ package org.aeonbits.owner;
 
 import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
 
+import java.io.File;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 
@@ -30,7 +32,7 @@ import org.aeonbits.owner.loaders.Loader;
  */
 public final class ConfigFactory {
 
-    private static final Factory INSTANCE = newInstance();
+    private static final DefaultFactory INSTANCE = newDefaultFactory();
 
     /** Don't let anyone instantiate this class */
     private ConfigFactory() {
@@ -42,6 +44,10 @@ public final class ConfigFactory {
      * @return a new instance of a config Factory object.
      */
     public static Factory newInstance() {
+        return newDefaultFactory();
+    }
+
+    private static DefaultFactory newDefaultFactory() {
         ScheduledExecutorService scheduler = newSingleThreadScheduledExecutor(new ThreadFactory() {
             public Thread newThread(Runnable r) {
                 Thread result = new Thread(r);
@@ -134,4 +140,32 @@ public final class ConfigFactory {
         INSTANCE.registerLoader(loader);
     }
 
+    /**
+     * Sets the executor used to read concurrently the {@link Config.Sources} of the config objects, which is useful
+     * when reading the sources is slow, for instance when they are remote. By default the sources are read one after
+     * the other in the thread creating or reloading the config object.
+     *
+     * @param executor the executor, or <tt>null</tt> to read the sources sequentially.
+     * @since 1.0.11
+     */
+    public static void setLoadExecutor(Executor executor) {
+        INSTANCE.setLoadExecutor(executor);
+    }
+
+    /**
+     * Sets the directory where the properties loaded for every config class are kept, so that the next time the config
+     * class is created, even by another process, they are read from there instead of parsing the sources again, as
+     * long as the sources and the config class are unchanged. This is useful for short-lived processes, as command
+     * line tools, that spend a significant time reading their configuration. By default the properties are not kept.
+     * <p/>
+     * The properties are only kept for the config classes whose sources are files, or in jar files, and they are not
+     * used when a config object is reloaded.
+     *
+     * @param directory the directory, or <tt>null</tt> to parse the sources every time.
+     * @since 1.0.11
+     */
+    public static void setSnapshotDirectory(File directory) {
+        INSTANCE.setSnapshotDirectory(directory);
+    }
+
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner;
+
+import java.util.Map;
+
+/**
+ * Static metadata for a {@link Config} interface, computed at compile time by the OWNER annotation processor.
+ * <p/>
+ * The generated class is named as the binary name of the {@link Config} interface followed by {@link #CLASS_SUFFIX},
+ * and it is picked up by the {@link Factory} when present, in place of reading the annotations by reflection.
+ *
+ * @author Luigi R. Viggiano
+ * @since 1.0.11
+ */
+public interface ConfigMetadata {
+
+    /**
+     * The suffix appended to the binary name of the {@link Config} interface to name the generated class.
+     */
+    String CLASS_SUFFIX = "$$OwnerMetadata";
+
+    /**
+     * Returns the value of the {@link Config.Sources} annotation of the interface.
+     *
+     * @return the sources specified for the interface, or <tt>null</tt> if the interface is not annotated.
+     */
+    String[] sources();
+
+    /**
+     * Returns the property keys mapped by the methods of the interface, including the {@link Config.Group} prefix.
+     * Methods are identified by their signature, in the form <tt>name(java.lang.String,int[])</tt>.
+     *
+     * @return the property keys indexed by method signature.
+     */
+    Map<String, String> keys();
+
+    /**
+     * Returns the values specified by {@link Config.DefaultValue} and {@link Config.DefaultValues} annotations.
+     *
+     * @return the default values indexed by property key.
+     */
+    Map<String, Object> defaults();
+
+}
@@ -14,6 +14,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -50,14 +51,38 @@ public class ConfigURLFactory {
 
     private final transient ClassLoader classLoader;
     private final VariablesExpander expander;
+    private final transient ConcurrentMap<String, Collection<URL>> resolved;
 
     ConfigURLFactory(ClassLoader classLoader, VariablesExpander expander) {
+        this(classLoader, expander, null);
+    }
+
+    /**
+     * @param resolved  the URLs already resolved with the same class loader, by expanded spec, where the specs not
+     *                  found are mapped to an empty list; <tt>null</tt> to resolve the specs every time.
+     */
+    ConfigURLFactory(ClassLoader classLoader, VariablesExpander expander,
+            ConcurrentMap<String, Collection<URL>> resolved) {
         this.classLoader = classLoader;
         this.expander = expander;
+        this.resolved = resolved;
     }
 
     Collection<URL> newURL(String spec) throws MalformedURLException {
         String expanded = expand(spec);
+        // the 'resources:' specs depend on the resolver, the ones with unresolved variables are expanded again later
+        if (resolved == null || expanded.startsWith(RESOURCES_PROTOCOL) || expanded.contains("${"))
+            return resolve(expanded);
+
+        Collection<URL> result = resolved.get(expanded);
+        if (result == null) {
+            result = resolve(expanded);
+            resolved.putIfAbsent(expanded, result == null ? Collections.<URL>emptyList() : result);
+        }
+        return result == null || result.isEmpty() ? null : result;
+    }
+
+    private Collection<URL> resolve(String expanded) throws MalformedURLException {
         URL url;
         if (expanded.startsWith(CLASSPATH_PROTOCOL)) {
             String path = expanded.substring(CLASSPATH_PROTOCOL.length());
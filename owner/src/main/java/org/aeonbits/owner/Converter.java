@@ -13,6 +13,10 @@ import java.lang.reflect.Method;
 /**
  * Converter interface specifies how to convert an input string coming from a property value to a target object returned
  * by the Config method.
+ * <p/>
+ * A single instance of the converter is created for every method annotated with {@link Config.ConverterClass}, and it
+ * is shared by all the config objects of the JVM and by all the threads invoking them: the implementations must be
+ * thread safe, which is easily achieved not keeping any mutable state.
  *
  * @param <T> the type of the class that should be returned from the conversion.
  * @author Luigi R. Viggiano
@@ -23,7 +27,7 @@ public interface Converter<T> {
     /**
      * Converts the given input into an Object of type T.
      * If the method returns null, null will be returned by the Config object.
-     * The converter is instantiated for every call, so it shouldn't have any internal state.
+     * This method can be called concurrently by several threads.
      *
      * @param method the method invoked on the <tt>{@link Config} object</tt>
      * @param value  the property value to be converted to the T return type
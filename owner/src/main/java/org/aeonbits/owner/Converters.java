@@ -16,6 +16,7 @@ import static org.aeonbits.owner.Util.unsupported;
 import java.beans.PropertyEditor;
 import java.beans.PropertyEditorManager;
 import java.io.File;
+import java.lang.ref.SoftReference;
 import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
@@ -28,8 +29,11 @@ import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.aeonbits.owner.Config.ConverterClass;
+import org.aeonbits.owner.ConfigClassMetadata.MethodMetadata;
 
 /**
  * Converter class from {@link java.lang.String} to property types.
@@ -65,7 +69,7 @@ enum Converters {
                 if (text.trim().isEmpty())
                     return Array.newInstance(type, 0);
 
-                Tokenizer tokenizer = TokenizerResolver.resolveTokenizer(targetMethod);
+                Tokenizer tokenizer = metadata(targetMethod).tokenizer();
                 String[] chunks = tokenizer.tokens(text);
 
                 Converters converter = doConvert(targetMethod, type, chunks[0]).getConverter();
@@ -87,21 +91,10 @@ enum Converters {
     METHOD_WITH_CONVERTER_CLASS_ANNOTATION {
         @Override
         Object tryConvert(Method targetMethod, Class<?> targetType, Object value) {
-            ConverterClass annotation = targetMethod.getAnnotation(ConverterClass.class);
-            if (annotation == null)
+            Converter<?> converter = metadata(targetMethod).converter();
+            if (converter == null)
                 return null;
 
-            Class<? extends Converter<?>> converterClass = annotation.value();
-            Converter<?> converter;
-            try {
-                converter = converterClass.newInstance();
-            } catch (InstantiationException e) {
-                throw unsupported(e, "Converter class %s can't be instantiated: %s", converterClass.getCanonicalName(),
-                        e.getMessage());
-            } catch (IllegalAccessException e) {
-                throw unsupported(e, "Converter class %s can't be accessed: %s", converterClass.getCanonicalName(),
-                        e.getMessage());
-            }
             Object result = converter.convert(targetMethod, value);
             if (result == null)
                 return NULL;
@@ -188,7 +181,7 @@ enum Converters {
             if (cast.isEmpty())
                 return null;
 
-            PropertyEditor editor = PropertyEditorManager.findEditor(targetType);
+            PropertyEditor editor = editor(targetType);
 
             if (editor == null)
                 return null;
@@ -196,6 +189,11 @@ enum Converters {
             editor.setAsText(cast);
             return editor.getValue();
         }
+
+        @Override
+        boolean declinesByValue(Method targetMethod, Class<?> targetType, Object value) {
+            return value instanceof String && editorLookup(targetType) != NULL;
+        }
     },
 
     FILE {
@@ -236,12 +234,12 @@ enum Converters {
             if (value == null)
                 return null;
 
-            try {
-                Constructor<?> constructor = targetType.getConstructor(value.getClass());
-                return constructor.newInstance(value);
-            } catch (Exception e) {
-                return null;
-            }
+            return newInstance(constructor(targetType, value.getClass()), value);
+        }
+
+        @Override
+        boolean declinesByValue(Method targetMethod, Class<?> targetType, Object value) {
+            return value != null && constructor(targetType, value.getClass()) != null;
         }
     },
 
@@ -251,26 +249,27 @@ enum Converters {
             if (!(value instanceof String))
                 return null;
 
-            try {
-                Constructor<?> constructor = targetType.getConstructor(String.class);
-                return constructor.newInstance((String) value);
-            } catch (Exception e) {
-                return null;
-            }
+            return newInstance(constructor(targetType, String.class), value);
+        }
+
+        @Override
+        boolean declinesByValue(Method targetMethod, Class<?> targetType, Object value) {
+            return value instanceof String && constructor(targetType, String.class) != null;
         }
     },
 
     CLASS_WITH_VALUE_OF_METHOD {
         @Override
         Object tryConvert(Method targetMethod, Class<?> targetType, Object value) {
-            try {
-                Method method = targetType.getMethod("valueOf", value.getClass());
-                if (isStatic(method.getModifiers()))
-                    return method.invoke(null, value);
-                return null;
-            } catch (Exception e) {
+            if (value == null)
                 return null;
-            }
+
+            return invoke(valueOfMethod(targetType, value.getClass()), value);
+        }
+
+        @Override
+        boolean declinesByValue(Method targetMethod, Class<?> targetType, Object value) {
+            return value != null && valueOfMethod(targetType, value.getClass()) != null;
         }
     },
 
@@ -280,27 +279,24 @@ enum Converters {
             if (value == null || targetType == Object.class)
                 return null;
 
-            try {
-                Class<?> valueType = value.getClass();
-                Method method = valueType.getMethod("valueOf", targetType);
-                if (isStatic(method.getModifiers()))
-                    return method.invoke(null, value);
-                return null;
-            } catch (Exception e) {
-                return null;
-            }
+            return invoke(valueOfMethod(value.getClass(), targetType), value);
+        }
+
+        @Override
+        boolean declinesByValue(Method targetMethod, Class<?> targetType, Object value) {
+            return value != null && targetType != Object.class && valueOfMethod(value.getClass(), targetType) != null;
         }
     },
 
     CLASS_WITH_OBJECT_CONSTRUCTOR {
         @Override
         Object tryConvert(Method targetMethod, Class<?> targetType, Object value) {
-            try {
-                Constructor<?> constructor = targetType.getConstructor(Object.class);
-                return constructor.newInstance(value);
-            } catch (Exception e) {
-                return null;
-            }
+            return newInstance(constructor(targetType, Object.class), value);
+        }
+
+        @Override
+        boolean declinesByValue(Method targetMethod, Class<?> targetType, Object value) {
+            return constructor(targetType, Object.class) != null;
         }
     },
 
@@ -313,19 +309,182 @@ enum Converters {
 
     abstract Object tryConvert(Method targetMethod, Class<?> targetType, Object value);
 
+    /**
+     * Tells if, having returned <tt>null</tt> from {@link #tryConvert(Method, Class, Object)}, this converter could
+     * still convert another value of the same type. In that case the converter following this one can't be remembered
+     * as the one to use for the given method, target type and value type.
+     */
+    boolean declinesByValue(Method targetMethod, Class<?> targetType, Object value) {
+        return false;
+    }
+
     static Object convert(Method targetMethod, Class<?> targetType, Object value) {
         return doConvert(targetMethod, targetType, value).getConvertedValue();
     }
 
     private static ConversionResult doConvert(Method targetMethod, Class<?> targetType, Object text) {
+        ConcurrentMap<ConversionKey, Converters> resolved = metadata(targetMethod).resolvedConverters();
+        ConversionKey key = text == null ? null : new ConversionKey(targetType, text.getClass());
+        if (key != null) {
+            Converters converter = resolved.get(key);
+            if (converter != null) {
+                Object convertedValue = converter.tryConvert(targetMethod, targetType, text);
+                if (convertedValue != null)
+                    return new ConversionResult(converter, convertedValue);
+            }
+        }
+
+        boolean resolvable = key != null;
         for (Converters converter : values()) {
             Object convertedValue = converter.tryConvert(targetMethod, targetType, text);
-            if (convertedValue != null)
+            if (convertedValue != null) {
+                if (resolvable)
+                    resolved.put(key, converter);
                 return new ConversionResult(converter, convertedValue);
+            }
+            if (resolvable && converter.declinesByValue(targetMethod, targetType, text))
+                resolvable = false;
         }
         return unreachableButCompilerNeedsThis();
     }
 
+    private static MethodMetadata metadata(Method targetMethod) {
+        return ConfigClassMetadata.of(targetMethod.getDeclaringClass()).method(targetMethod);
+    }
+
+    /**
+     * @return the instance of the {@link ConverterClass} annotating the method, or {@link #NULL} if not annotated.
+     */
+    static Object newConverter(Method targetMethod) {
+        ConverterClass annotation = targetMethod.getAnnotation(ConverterClass.class);
+        if (annotation == null)
+            return NULL;
+
+        Class<? extends Converter<?>> converterClass = annotation.value();
+        try {
+            return converterClass.newInstance();
+        } catch (InstantiationException e) {
+            throw unsupported(e, "Converter class %s can't be instantiated: %s", converterClass.getCanonicalName(),
+                    e.getMessage());
+        } catch (IllegalAccessException e) {
+            throw unsupported(e, "Converter class %s can't be accessed: %s", converterClass.getCanonicalName(),
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Property editors are stateful, so a new instance is created for each conversion: the editor class is cached
+     * when it can be instantiated, otherwise the {@link PropertyEditorManager} is asked for each conversion.
+     */
+    private static PropertyEditor editor(Class<?> targetType) {
+        Object editor = editorLookup(targetType);
+        if (editor == NULL)
+            return null;
+        if (editor == PropertyEditorManager.class)
+            return PropertyEditorManager.findEditor(targetType);
+        try {
+            return (PropertyEditor) ((Class<?>) editor).newInstance();
+        } catch (Exception e) {
+            return PropertyEditorManager.findEditor(targetType);
+        }
+    }
+
+    /**
+     * @return the editor class for the type, {@link PropertyEditorManager} if the editor class can't be instantiated
+     * (as the editors of the JDK without a public constructor), or {@link #NULL} if there's no editor.
+     */
+    private static Object editorLookup(Class<?> targetType) {
+        ConcurrentMap<MemberKey, Object> members = members(targetType);
+        MemberKey key = new MemberKey(PropertyEditor.class, null);
+        Object editor = members.get(key);
+        if (editor == null) {
+            PropertyEditor found = PropertyEditorManager.findEditor(targetType);
+            editor = found == null ? NULL : instantiable(found.getClass()) ? found.getClass()
+                    : PropertyEditorManager.class;
+            members.putIfAbsent(key, editor);
+        }
+        return editor;
+    }
+
+    private static boolean instantiable(Class<?> type) {
+        try {
+            type.newInstance();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static Constructor<?> constructor(Class<?> type, Class<?> parameterType) {
+        ConcurrentMap<MemberKey, Object> members = members(type);
+        MemberKey key = new MemberKey(Constructor.class, parameterType);
+        Object constructor = members.get(key);
+        if (constructor == null) {
+            try {
+                constructor = type.getConstructor(parameterType);
+            } catch (Exception e) {
+                constructor = NULL;
+            }
+            members.putIfAbsent(key, constructor);
+        }
+        return constructor == NULL ? null : (Constructor<?>) constructor;
+    }
+
+    private static Method valueOfMethod(Class<?> type, Class<?> parameterType) {
+        ConcurrentMap<MemberKey, Object> members = members(type);
+        MemberKey key = new MemberKey(Method.class, parameterType);
+        Object method = members.get(key);
+        if (method == null) {
+            try {
+                method = type.getMethod("valueOf", parameterType);
+                if (!isStatic(((Method) method).getModifiers()))
+                    method = NULL;
+            } catch (Exception e) {
+                method = NULL;
+            }
+            members.putIfAbsent(key, method);
+        }
+        return method == NULL ? null : (Method) method;
+    }
+
+    /**
+     * @return the members of the given type looked up by the converters.
+     */
+    private static ConcurrentMap<MemberKey, Object> members(Class<?> type) {
+        while (true) {
+            SoftReference<ConcurrentMap<MemberKey, Object>> reference = members.get(type);
+            ConcurrentMap<MemberKey, Object> result = reference == null ? null : reference.get();
+            if (result != null)
+                return result;
+            result = new ConcurrentHashMap<MemberKey, Object>();
+            SoftReference<ConcurrentMap<MemberKey, Object>> created =
+                    new SoftReference<ConcurrentMap<MemberKey, Object>>(result);
+            if (reference == null ? members.putIfAbsent(type, created) == null
+                    : members.replace(type, reference, created))
+                return result;
+        }
+    }
+
+    private static Object newInstance(Constructor<?> constructor, Object value) {
+        if (constructor == null)
+            return null;
+        try {
+            return constructor.newInstance(value);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static Object invoke(Method method, Object value) {
+        if (method == null)
+            return null;
+        try {
+            return method.invoke(null, value);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     private static UnsupportedOperationException unsupportedConversion(Class<?> targetType, Object value) {
         return unsupported("Cannot convert '%s' from type '%s' to '%s'", value, value.getClass().getCanonicalName(),
                 targetType.getCanonicalName());
@@ -354,4 +513,61 @@ enum Converters {
      */
     static final Object NULL = new Object();
 
+    /**
+     * The property editor classes, constructors and <tt>valueOf</tt> methods looked up by the converters, or
+     * {@link #NULL} when missing, by the type declaring them. They are held softly, as they refer to the type and
+     * would keep its class loader alive.
+     */
+    private static final WeakKeyMap<Class<?>, SoftReference<ConcurrentMap<MemberKey, Object>>> members =
+            new WeakKeyMap<Class<?>, SoftReference<ConcurrentMap<MemberKey, Object>>>();
+
+    /**
+     * The target type and value type of a conversion, identifying the converter to use for a method.
+     */
+    static final class ConversionKey {
+        private final Class<?> targetType;
+        private final Class<?> valueType;
+
+        ConversionKey(Class<?> targetType, Class<?> valueType) {
+            this.targetType = targetType;
+            this.valueType = valueType;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ConversionKey))
+                return false;
+            ConversionKey that = (ConversionKey) obj;
+            return targetType == that.targetType && valueType == that.valueType;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * targetType.hashCode() + valueType.hashCode();
+        }
+    }
+
+    private static final class MemberKey {
+        private final Class<?> kind;
+        private final Class<?> parameterType;
+
+        MemberKey(Class<?> kind, Class<?> parameterType) {
+            this.kind = kind;
+            this.parameterType = parameterType;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof MemberKey))
+                return false;
+            MemberKey that = (MemberKey) obj;
+            return kind == that.kind && parameterType == that.parameterType;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * kind.hashCode() + (parameterType == null ? 0 : parameterType.hashCode());
+        }
+    }
+
 }
@@ -8,8 +8,12 @@
 
 package org.aeonbits.owner;
 
-import static java.lang.reflect.Proxy.newProxyInstance;
+import static org.aeonbits.owner.Util.unsupported;
 
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 
 import org.aeonbits.owner.loaders.Loader;
@@ -24,6 +28,7 @@ class DefaultFactory implements Factory {
     private final ScheduledExecutorService scheduler;
     private OwnerProperties props;
     final LoadersManager loadersManager;
+    private final FileWatcher watcher = FileWatcher.shared();
 
     DefaultFactory(ScheduledExecutorService scheduler, OwnerProperties props) {
         this.scheduler = scheduler;
@@ -33,16 +38,34 @@ class DefaultFactory implements Factory {
 
     @SuppressWarnings("unchecked")
     public <T extends Config> T create(Class<? extends T> clazz, OwnerProperties... imports) {
-        Class<?>[] interfaces = new Class<?>[] { clazz };
         VariablesExpander expander = new VariablesExpander(props);
-        PropertiesManager manager = new PropertiesManager(clazz, new OwnerProperties(), scheduler, expander,
-                loadersManager, imports);
+        PropertiesManager manager = new PropertiesManager(clazz, new OwnerProperties(), scheduler, watcher,
+                expander, loadersManager, imports);
         PropertiesInvocationHandler handler = new PropertiesInvocationHandler(manager, clazz);
-        T proxy = (T) newProxyInstance(clazz.getClassLoader(), interfaces, handler);
+        T proxy = (T) newProxy(clazz, handler);
         handler.setProxy(proxy);
         return proxy;
     }
 
+    /**
+     * Creates the proxy as {@link java.lang.reflect.Proxy#newProxyInstance} does, reusing the constructor of the proxy
+     * class kept by the metadata of the interface, which stays cached while the interface is loaded, also when no
+     * config object is alive.
+     */
+    private Object newProxy(Class<?> clazz, InvocationHandler handler) {
+        try {
+            return ConfigClassMetadata.of(clazz).proxyConstructor().newInstance(handler);
+        } catch (NoSuchMethodException e) {
+            throw unsupported(e, "Can't create the proxy for %s", clazz.getName());
+        } catch (InstantiationException e) {
+            throw unsupported(e, "Can't create the proxy for %s", clazz.getName());
+        } catch (IllegalAccessException e) {
+            throw unsupported(e, "Can't create the proxy for %s", clazz.getName());
+        } catch (InvocationTargetException e) {
+            throw unsupported(e.getTargetException(), "Can't create the proxy for %s", clazz.getName());
+        }
+    }
+
     public Object setProperty(String key, Object value) {
         checkKey(key);
         return props.put(key, value);
@@ -70,6 +93,14 @@ class DefaultFactory implements Factory {
         loadersManager.registerLoader(loader);
     }
 
+    void setLoadExecutor(Executor executor) {
+        loadersManager.setExecutor(executor);
+    }
+
+    void setSnapshotDirectory(File directory) {
+        loadersManager.setSnapshots(directory == null ? null : new SnapshotStore(directory));
+    }
+
     public Object getProperty(String key) {
         checkKey(key);
         return props.get(key);
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner;
+
+import static org.aeonbits.owner.Util.unsupported;
+
+import java.io.File;
+
+/**
+ * Watches files for changes, notifying the listeners interested in them. A single watcher is shared by all the configs
+ * of the JVM.
+ * <p/>
+ * When the file system (or the JRE) doesn't support watching, {@link #watch(File, Listener)} returns <tt>false</tt>
+ * and the caller has to poll the file for changes.
+ *
+ * @author Luigi R. Viggiano
+ */
+abstract class FileWatcher {
+
+    interface Listener {
+        void fileChanged(File file);
+    }
+
+    private static final FileWatcher SHARED = newInstance();
+
+    /**
+     * @return the watcher shared by all the configs of the JVM.
+     */
+    static FileWatcher shared() {
+        return SHARED;
+    }
+
+    /**
+     * @return a new watcher, or one not watching anything if the JRE doesn't provide the
+     * <tt>java.nio.file.WatchService</tt>. The implementation using it is loaded by name, so that this class doesn't
+     * refer to the classes introduced by Java 7.
+     */
+    static FileWatcher newInstance() {
+        try {
+            Class.forName("java.nio.file.WatchService");
+        } catch (ClassNotFoundException e) {
+            return new Unsupported();
+        }
+        String name = FileWatcher.class.getPackage().getName() + ".WatchServiceFileWatcher";
+        try {
+            return (FileWatcher) Class.forName(name, true, FileWatcher.class.getClassLoader()).newInstance();
+        } catch (Exception e) {
+            throw unsupported(e, "Can't instantiate %s", name);
+        }
+    }
+
+    /**
+     * Registers the listener to be notified when the given file changes.
+     *
+     * @return <tt>true</tt> if the file is being watched, <tt>false</tt> if it can't be watched and must be polled.
+     */
+    abstract boolean watch(File file, Listener listener);
+
+    /**
+     * @return <tt>true</tt> if the notifications for the given file are still being delivered.
+     */
+    abstract boolean isWatched(File file);
+
+    private static final class Unsupported extends FileWatcher {
+
+        @Override
+        boolean watch(File file, Listener listener) {
+            return false;
+        }
+
+        @Override
+        boolean isWatched(File file) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner;
+
+import static org.aeonbits.owner.Util.unsupported;
+
+import java.lang.reflect.Method;
+
+/**
+ * Locates the {@link ConfigMetadata} generated at compile time for a {@link Config} interface.
+ *
+ * @author Luigi R. Viggiano
+ */
+final class GeneratedMetadata {
+
+    /** Don't let anyone instantiate this class */
+    private GeneratedMetadata() {
+    }
+
+    /**
+     * @return the generated metadata for the given interface, or <tt>null</tt> if it has not been generated.
+     */
+    static ConfigMetadata lookup(Class<?> clazz) {
+        String name = clazz.getName() + ConfigMetadata.CLASS_SUFFIX;
+        Class<?> generated;
+        try {
+            generated = Class.forName(name, true, clazz.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        try {
+            return (ConfigMetadata) generated.newInstance();
+        } catch (Exception e) {
+            throw unsupported(e, "Generated metadata class '%s' cannot be instantiated", name);
+        }
+    }
+
+    static String signature(Method method) {
+        StringBuilder result = new StringBuilder(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0)
+                result.append(',');
+            result.append(typeName(parameterTypes[i]));
+        }
+        return result.append(')').toString();
+    }
+
+    private static String typeName(Class<?> type) {
+        if (type.isArray())
+            return typeName(type.getComponentType()) + "[]";
+        return type.getName();
+    }
+
+}
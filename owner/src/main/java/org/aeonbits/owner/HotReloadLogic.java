@@ -9,6 +9,7 @@
 package org.aeonbits.owner;
 
 import static org.aeonbits.owner.Config.HotReloadType.ASYNC;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.aeonbits.owner.Config.HotReloadType.SYNC;
 import static org.aeonbits.owner.Util.fileFromURL;
 import static org.aeonbits.owner.Util.now;
@@ -18,34 +19,58 @@ import java.io.Serializable;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.aeonbits.owner.Config.HotReload;
 import org.aeonbits.owner.Config.HotReloadType;
 
 /**
+ * Checks the watched files for changes and reloads the properties when needed.
+ * <p/>
+ * The check is cheap for the callers: until the deadline of the next check is reached, {@link #checkAndReload()} only
+ * reads two volatile fields. After that, only one caller claims the check without blocking, while the others keep
+ * going with the current properties.
+ * <p/>
+ * The files are watched through the shared {@link FileWatcher}, when available: a change notification anticipates the
+ * next check (and, for the {@link HotReloadType#ASYNC} type, triggers it in background). Only the files that can't be
+ * watched, or whose directory is no longer watched, are polled for their last modified time; for the
+ * {@link HotReloadType#ASYNC} type, the periodic check is scheduled only once there is such a file.
+ *
  * @author Luigi R. Viggiano
  */
-class HotReloadLogic implements Serializable {
+class HotReloadLogic implements Serializable, FileWatcher.Listener {
     private static final long serialVersionUID = -3819125660720521332L;
 
     private final PropertiesManager manager;
     private final long interval;
     private final HotReloadType type;
-    private volatile long lastCheckTime = now();
+    private volatile long nextCheckTime;
+    private final AtomicBoolean notified = new AtomicBoolean(false);
+    private final AtomicBoolean checking = new AtomicBoolean(false);
+    private final AtomicBoolean polling = new AtomicBoolean(false);
     private final List<WatchableFile> watchableFiles = new ArrayList<WatchableFile>();
+    private final transient FileWatcher watcher;
+    private final transient ScheduledExecutorService scheduler;
 
     private static class WatchableFile implements Serializable {
         private static final long serialVersionUID = -2289003623192543240L;
 
         private final File file;
-        private long lastModifiedTime;
+        private volatile long lastModifiedTime;
+        private volatile boolean watched;
 
         WatchableFile(File file) {
             this.file = file;
             this.lastModifiedTime = file.lastModified();
         }
 
+        /**
+         * @return <tt>true</tt> if the file is polled and its last modified time changed since the last check.
+         */
         public boolean isChanged() {
+            if (watched)
+                return false; // its changes are notified
             long lastModifiedTimeNow = file.lastModified();
             boolean changed = lastModifiedTime != lastModifiedTimeNow;
             if (changed)
@@ -55,40 +80,117 @@ class HotReloadLogic implements Serializable {
     }
 
     public HotReloadLogic(HotReload hotReload, List<URL> urls, PropertiesManager manager) {
+        this(hotReload, urls, manager, null, null);
+    }
+
+    /**
+     * @param watcher   the watcher for the files, or <tt>null</tt> to poll them.
+     * @param scheduler the scheduler where the {@link HotReloadType#ASYNC} checks are performed, periodically for the
+     *                  polled files and on change notifications for the watched ones.
+     */
+    HotReloadLogic(HotReload hotReload, List<URL> urls, PropertiesManager manager, FileWatcher watcher,
+            ScheduledExecutorService scheduler) {
         this.manager = manager;
+        this.watcher = watcher;
+        this.scheduler = scheduler;
         type = hotReload.type();
         interval = hotReload.unit().toMillis(hotReload.value());
+        nextCheckTime = now() + interval;
         setupWatchableResources(urls);
     }
 
     private void setupWatchableResources(List<URL> urls) {
+        boolean needsPolling = false;
         for (URL url : urls) {
             File file = fileFromURL(url);
-            if (file != null)
-                watchableFiles.add(new WatchableFile(file));
+            if (file != null) {
+                WatchableFile resource = new WatchableFile(file);
+                watchableFiles.add(resource);
+                resource.watched = watcher != null && watcher.watch(file, this);
+                needsPolling |= !resource.watched;
+            }
         }
+        if (needsPolling)
+            startPolling();
     }
 
-    synchronized void checkAndReload() {
-        if (needsReload())
-            manager.reload();
+    private void startPolling() {
+        if (isAsync() && scheduler != null && polling.compareAndSet(false, true))
+            scheduler.scheduleAtFixedRate(new Runnable() {
+                public void run() {
+                    checkAndReload();
+                }
+            }, interval, interval, MILLISECONDS);
     }
 
-    private boolean needsReload() {
-        if (manager.isLoading())
-            return false;
+    public void fileChanged(File file) {
+        File target = file.getAbsoluteFile();
+        for (WatchableFile resource : watchableFiles)
+            if (resource.watched && resource.file.getAbsoluteFile().equals(target) && !watcher.isWatched(target)) {
+                resource.lastModifiedTime = resource.file.lastModified();
+                resource.watched = false; // the directory is no longer watched: the file is polled from now on
+                startPolling();
+            }
+        notified.set(true);
+        submit();
+    }
+
+    private void submit() {
+        if (isAsync() && scheduler != null)
+            scheduler.execute(new Runnable() {
+                public void run() {
+                    checkAndReload();
+                }
+            });
+    }
+
+    private void retryLater() {
+        if (isAsync() && scheduler != null)
+            scheduler.schedule(new Runnable() {
+                public void run() {
+                    checkAndReload();
+                }
+            }, interval, MILLISECONDS);
+    }
 
+    /**
+     * Checks the files and reloads the properties if they changed. A check skipped while the properties are loading
+     * is performed by the next caller (for the {@link HotReloadType#ASYNC} type, by the next periodic check, or by one
+     * scheduled after the interval if nothing is polled), and a notification coming while another caller is checking
+     * is handled by that caller once done.
+     */
+    void checkAndReload() {
+        if (now() < nextCheckTime && !notified.get())
+            return;
+        if (manager.isLoading()) {
+            if (notified.get() && !polling.get())
+                retryLater();
+            return;
+        }
+        if (!checking.compareAndSet(false, true))
+            return;
+        try {
+            if (needsReload())
+                manager.reload();
+        } finally {
+            checking.set(false);
+        }
+        if (notified.get())
+            submit(); // notified during the check: the check it submitted may have found this one running
+    }
+
+    private boolean needsReload() {
         long now = now();
-        if (now < lastCheckTime + interval)
-            return false;
+        boolean changed = notified.getAndSet(false);
+        if (now < nextCheckTime && !changed)
+            return false; // another caller has just done the check
 
         try {
             for (WatchableFile resource : watchableFiles)
-                if (resource.isChanged())
-                    return true;
-            return false;
+                changed |= resource.isChanged();
+            return changed;
         } finally {
-            lastCheckTime = now;
+            nextCheckTime = now + interval;
         }
     }
 
@@ -8,24 +8,56 @@
 
 package org.aeonbits.owner;
 
+import static org.aeonbits.owner.Util.fileFromURL;
+import static org.aeonbits.owner.Util.ignore;
+import static org.aeonbits.owner.Util.reverse;
 import static org.aeonbits.owner.Util.unsupported;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.ObjectStreamException;
 import java.io.Serializable;
+import java.lang.ref.SoftReference;
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.aeonbits.owner.OwnerProperties.Index;
 import org.aeonbits.owner.loaders.Loader;
+import org.aeonbits.owner.loaders.MappedPropertiesLoader;
 import org.aeonbits.owner.loaders.PropertiesLoader;
+import org.aeonbits.owner.loaders.URLLoader;
 import org.aeonbits.owner.loaders.YAMLLoader;
 
 /**
  * This class is responsible of locating an appropriate Loader for a given URL (based the extension in the resource
  * name)and load the properties from it.
+ * <p/>
+ * The sources on the filesystem, or in a jar on the filesystem, are parsed once and kept in a cache shared by all the
+ * config objects created by the same factory, as long as the length and the modification time of the file are
+ * unchanged: loading them again only replays what the loader did into the resulting properties. The cache holds them
+ * softly, so that they are parsed again rather than running out of memory, and skips the sources handled by the
+ * {@link MappedPropertiesLoader}, which keeps its own index of them.
+ * <p/>
+ * The URLs of the sources are resolved once per class loader and expanded spec, including the classpath resources not
+ * found.
+ * <p/>
+ * The registered loaders are kept in an immutable list, replaced when a loader is registered, and the loader resolved
+ * for every URL is cached, so that locating it takes no lock and doesn't ask the loaders again.
  *
  * @author Luigi R. Viggiano
  * @since 1.0.5
@@ -33,8 +65,14 @@ import org.aeonbits.owner.loaders.YAMLLoader;
 class LoadersManager implements Serializable {
     private static final long serialVersionUID = -8315860156862253695L;
 
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-    private final List<Loader> loaders = new LinkedList<Loader>();
+    private volatile List<Loader> loaders = Collections.emptyList();
+    private final transient ConcurrentMap<String, Loader> resolvedLoaders = new ConcurrentHashMap<String, Loader>();
+    private final transient ConcurrentMap<String, SoftReference<ParsedSource>> parsedSources =
+            new ConcurrentHashMap<String, SoftReference<ParsedSource>>();
+    private transient volatile Executor executor;
+    private transient volatile SnapshotStore snapshots;
+    private final transient WeakKeyMap<ClassLoader, ConcurrentMap<String, Collection<URL>>> resolvedURLs =
+            new WeakKeyMap<ClassLoader, ConcurrentMap<String, Collection<URL>>>();
 
     LoadersManager() {
         registerLoader(new PropertiesLoader());
@@ -42,59 +80,420 @@ class LoadersManager implements Serializable {
     }
 
     void load(OwnerProperties result, URL url) throws IOException {
+        if (fileFromURL(url) == null)
+            parse(result, url);
+        else
+            parsed(url).replay(result);
+    }
+
+    /**
+     * @return the properties loaded from the given source, from the cache if the source is a file and it's unchanged.
+     */
+    ParsedSource parsed(URL url) throws IOException {
+        File file = fileFromURL(url);
+        if (file == null) {
+            Recorder recorder = new Recorder();
+            parse(recorder, url);
+            return new ParsedSource(recorder, -1, -1);
+        }
+
+        String key = url.toExternalForm();
+        SoftReference<ParsedSource> reference = parsedSources.get(key);
+        ParsedSource source = reference == null ? null : reference.get();
+        if (source != null && source.isCurrent(file))
+            return source;
+
+        resolvedLoaders.remove(key); // the loaders may accept a file depending on its length
+        long length = file.length();
+        long lastModified = file.lastModified(); // read before the content, so later changes are detected
+        Recorder recorder = new Recorder();
+        Loader loader = parse(recorder, url);
+        source = new ParsedSource(recorder, length, lastModified);
+        if (loader instanceof MappedPropertiesLoader)
+            parsedSources.remove(key);
+        else
+            parsedSources.put(key, new SoftReference<ParsedSource>(source));
+        return source;
+    }
+
+    /**
+     * Loads the first available of the given sources, as specified by {@link Config.LoadType#FIRST}. When they are
+     * read concurrently, the ones following the first available are cancelled.
+     */
+    OwnerProperties loadFirst(List<URL> urls) {
+        OwnerProperties result = new OwnerProperties();
+        List<Future<ParsedSource>> sources = fetch(urls);
+        if (sources != null) {
+            try {
+                for (Future<ParsedSource> source : sources) {
+                    ParsedSource parsed = await(source);
+                    if (parsed != null) {
+                        parsed.replay(result);
+                        break;
+                    }
+                }
+            } finally {
+                for (Future<ParsedSource> source : sources)
+                    source.cancel(true);
+            }
+            return result;
+        }
+
+        for (URL url : urls)
+            try {
+                load(result, url);
+                break;
+            } catch (IOException ex) {
+                // happens when a file specified in the sources is not found or cannot be read.
+                ignore();
+            }
+        return result;
+    }
+
+    /**
+     * Loads and merges all the available sources, as specified by {@link Config.LoadType#MERGE}.
+     */
+    OwnerProperties loadMerged(List<URL> urls) {
+        OwnerProperties result = new OwnerProperties();
+        List<Future<ParsedSource>> sources = fetch(urls);
+        if (sources != null) {
+            try {
+                for (Future<ParsedSource> source : reverse(sources)) {
+                    ParsedSource parsed = await(source);
+                    if (parsed != null)
+                        parsed.replay(result);
+                }
+            } finally {
+                for (Future<ParsedSource> source : sources)
+                    source.cancel(true); // only the ones left by a failure
+            }
+            return result;
+        }
+
+        for (URL url : reverse(urls))
+            try {
+                load(result, url);
+            } catch (IOException ex) {
+                // happens when a file specified in the sources is not found or cannot be read.
+                ignore();
+            }
+        return result;
+    }
+
+    /**
+     * Starts loading the given sources concurrently, on the executor set with {@link #setExecutor(Executor)}.
+     *
+     * @return the results of the loading, in the same order of the sources, or <tt>null</tt> if the sources are to be
+     * loaded sequentially, since no executor has been set or there is only one source.
+     */
+    private List<Future<ParsedSource>> fetch(List<URL> urls) {
+        Executor executor = this.executor;
+        if (executor == null || urls.size() < 2)
+            return null;
+        List<Future<ParsedSource>> result = new ArrayList<Future<ParsedSource>>(urls.size());
+        for (final URL url : urls) {
+            FutureTask<ParsedSource> task = new FutureTask<ParsedSource>(new Callable<ParsedSource>() {
+                public ParsedSource call() throws IOException {
+                    return parsed(url);
+                }
+            });
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+            result.add(task);
+        }
+        return result;
+    }
+
+    /**
+     * Waits for a source started by {@link #fetch(List)}.
+     *
+     * @return the loaded source, or <tt>null</tt> if it can't be read.
+     */
+    private static ParsedSource await(Future<ParsedSource> source) {
+        try {
+            return source.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw unsupported(e, "Interrupted while loading the sources");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                return null;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw unsupported(cause, "Can't load the sources");
+        }
+    }
+
+    /**
+     * Sets the executor used to load concurrently the sources of a config object, or <tt>null</tt> to load them
+     * sequentially.
+     */
+    void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Sets the store of the snapshots of the loaded properties, or <tt>null</tt> to always load them from the sources.
+     */
+    void setSnapshots(SnapshotStore snapshots) {
+        this.snapshots = snapshots;
+    }
+
+    SnapshotStore snapshots() {
+        return snapshots;
+    }
+
+    /**
+     * @return the cache of the URLs of the sources resolved with the given class loader, to be used by the
+     * {@link ConfigURLFactory}, or <tt>null</tt> if they can't be cached.
+     */
+    ConcurrentMap<String, Collection<URL>> resolvedURLs(ClassLoader classLoader) {
+        if (classLoader == null)
+            return null;
+        ConcurrentMap<String, Collection<URL>> result = resolvedURLs.get(classLoader);
+        if (result == null) {
+            result = new ConcurrentHashMap<String, Collection<URL>>();
+            ConcurrentMap<String, Collection<URL>> existing = resolvedURLs.putIfAbsent(classLoader, result);
+            if (existing != null)
+                return existing;
+        }
+        return result;
+    }
+
+    /**
+     * @return the registered loaders, in the order they are asked to accept the URLs.
+     */
+    List<Loader> loaders() {
+        return loaders;
+    }
+
+    /**
+     * Removes the given sources from the cache, so that they are parsed again when loaded.
+     */
+    void invalidate(Collection<URL> urls) {
+        for (URL url : urls) {
+            String key = url.toExternalForm();
+            parsedSources.remove(key);
+            resolvedLoaders.remove(key);
+        }
+    }
+
+    /**
+     * @return the loader used.
+     */
+    private Loader parse(OwnerProperties result, URL url) throws IOException {
         InputStream stream = url.openStream();
         try {
             Loader loader = findLoader(url);
-            loader.load(result, stream);
+            if (loader instanceof URLLoader)
+                ((URLLoader) loader).load(result, url);
+            else
+                loader.load(result, stream);
+            return loader;
         } finally {
             stream.close();
         }
     }
 
     Loader findLoader(URL url) {
-        lock.readLock().lock();
-        try {
-            for (Loader loader : loaders)
-                if (loader.accept(url))
-                    return loader;
-            throw unsupported("Can't resolve a Loader for the URL %s.", url.toString());
-        } finally {
-            lock.readLock().unlock();
-        }
+        String key = url.toExternalForm();
+        Loader loader = resolvedLoaders.get(key);
+        if (loader != null)
+            return loader;
+
+        List<Loader> loaders = this.loaders;
+        for (Loader candidate : loaders)
+            if (candidate.accept(url)) {
+                resolvedLoaders.put(key, candidate);
+                if (this.loaders != loaders)
+                    resolvedLoaders.remove(key, candidate); // a loader has been registered meanwhile
+                return candidate;
+            }
+        throw unsupported("Can't resolve a Loader for the URL %s.", url.toString());
     }
 
-    final void registerLoader(Loader loader) {
+    final synchronized void registerLoader(Loader loader) {
         if (loader == null)
             throw new IllegalArgumentException("loader can't be null");
-        lock.writeLock().lock();
-        try {
-            loaders.add(0, loader);
-        } finally {
-            lock.writeLock().unlock();
+        List<Loader> result = new ArrayList<Loader>(loaders.size() + 1);
+        result.add(loader);
+        result.addAll(loaders);
+        loaders = Collections.unmodifiableList(result);
+        resolvedLoaders.clear();
+        parsedSources.clear();
+    }
+
+    synchronized void clear() {
+        loaders = Collections.emptyList();
+        resolvedLoaders.clear();
+        parsedSources.clear();
+    }
+
+    String[] defaultSpecs(String prefix) {
+        List<Loader> loaders = this.loaders;
+        List<String> defaultSpecs = new ArrayList<String>(loaders.size());
+        for (Loader loader : loaders) {
+            String spec = loader.defaultSpecFor(prefix);
+            if (spec != null)
+                defaultSpecs.add(spec);
         }
+        return defaultSpecs.toArray(new String[0]);
     }
 
-    void clear() {
-        lock.writeLock().lock();
-        try {
-            loaders.clear();
-        } finally {
-            lock.writeLock().unlock();
+    private Object readResolve() throws ObjectStreamException {
+        LoadersManager result = new LoadersManager();
+        result.clear();
+        for (Loader loader : reverse(loaders))
+            result.registerLoader(loader);
+        return result;
+    }
+
+    /**
+     * The properties loaded from a source, kept as the operations performed by the loader, since their result depends
+     * on the properties already loaded from the other sources.
+     */
+    static final class ParsedSource {
+        private final List<Operation> operations;
+        private final long length;
+        private final long lastModified;
+
+        ParsedSource(Recorder recorder, long length, long lastModified) {
+            this.operations = recorder.operations;
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+        boolean isCurrent(File file) {
+            return file.length() == length && file.lastModified() == lastModified;
+        }
+
+        void replay(OwnerProperties result) {
+            for (Operation operation : operations)
+                operation.replay(result);
         }
     }
 
-    String[] defaultSpecs(String prefix) {
-        lock.readLock().lock();
-        try {
-            List<String> defaultSpecs = new ArrayList<String>(loaders.size());
-            for (Loader loader : loaders) {
-                String spec = loader.defaultSpecFor(prefix);
-                if (spec != null)
-                    defaultSpecs.add(spec);
+    private enum Kind {
+        PUT, PUT_ALL, PUT_INDEX, REMOVE, CLEAR
+    }
+
+    private static final class Operation {
+        private final Kind kind;
+        private final String key;
+        private final Object value;
+
+        Operation(Kind kind, String key, Object value) {
+            this.kind = kind;
+            this.key = key;
+            this.value = value;
+        }
+
+        @SuppressWarnings("unchecked")
+        void replay(OwnerProperties result) {
+            switch (kind) {
+            case PUT:
+                result.put(key, copy(value));
+                break;
+            case PUT_ALL:
+                result.putAll((Map<String, Object>) copy(value));
+                break;
+            case PUT_INDEX:
+                result.putIndex((Index) value);
+                break;
+            case REMOVE:
+                result.remove(value);
+                break;
+            case CLEAR:
+                result.clear();
+                break;
+            }
+        }
+
+        /**
+         * Copies the nested maps, which may be modified when other properties are merged into them.
+         */
+        @SuppressWarnings("unchecked")
+        private static Object copy(Object value) {
+            if (!(value instanceof Map<?, ?>))
+                return value;
+            Map<String, Object> map = (Map<String, Object>) value;
+            Map<String, Object> result = map instanceof LinkedHashMap<?, ?>
+                    ? new LinkedHashMap<String, Object>(map.size() * 4 / 3 + 1)
+                    : new HashMap<String, Object>(map.size() * 4 / 3 + 1);
+            for (Map.Entry<String, Object> entry : map.entrySet())
+                result.put(entry.getKey(), copy(entry.getValue()));
+            return result;
+        }
+    }
+
+    /**
+     * Records the operations performed by a loader, to replay them later on other properties.
+     */
+    private static final class Recorder extends OwnerProperties {
+        private static final long serialVersionUID = 2401581216722766398L;
+
+        final List<Operation> operations = new ArrayList<Operation>();
+        private int depth; // the operations performed by other operations are not recorded
+
+        private void record(Kind kind, String key, Object value) {
+            if (depth++ == 0)
+                operations.add(new Operation(kind, key, value));
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            record(Kind.PUT, key, value);
+            try {
+                return super.put(key, value);
+            } finally {
+                depth--;
+            }
+        }
+
+        @Override
+        public void putAll(Map<? extends String, ? extends Object> from) {
+            record(Kind.PUT_ALL, null, from);
+            try {
+                super.putAll(from);
+            } finally {
+                depth--;
+            }
+        }
+
+        @Override
+        public void putIndex(Index index) {
+            record(Kind.PUT_INDEX, null, index);
+            try {
+                super.putIndex(index);
+            } finally {
+                depth--;
+            }
+        }
+
+        @Override
+        public Object remove(Object key) {
+            record(Kind.REMOVE, null, key);
+            try {
+                return super.remove(key);
+            } finally {
+                depth--;
+            }
+        }
+
+        @Override
+        public void clear() {
+            record(Kind.CLEAR, null, null);
+            try {
+                super.clear();
+            } finally {
+                depth--;
             }
-            return defaultSpecs.toArray(new String[0]);
-        } finally {
-            lock.readLock().unlock();
         }
     }
 
@@ -7,14 +7,19 @@
  */
 package org.aeonbits.owner;
 
+import static java.util.Collections.unmodifiableSet;
 import static org.aeonbits.owner.Util.propertiesToMap;
 
 import java.io.IOException;
 import java.io.PrintStream;
 import java.io.PrintWriter;
+import java.io.Serializable;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -29,6 +34,18 @@ import java.util.Set;
  * Known issues : 
  *      - The {@link #containsKey(String)} method currently isn't recursive (dotted properties might not be found)
  * </p>
+ * <p>
+ * Dotted keys resolved into nested maps are looked up in a flat index from the full dotted path to the value, built on
+ * the first lookup and discarded when the properties are modified. The set of the recursive keys, once computed, is
+ * instead updated along with the properties. For this reason the nested maps must not be modified once stored, and
+ * the properties must be modified only through the methods of this class, not through its views.
+ * </p>
+ * <p>
+ * Properties too many to be kept in memory can be served by an {@link Index}, added with {@link #putIndex(Index)}:
+ * its keys override the properties put before it, and are overridden by the ones put after it. The keys of an index
+ * are listed by {@link #keySetRecursive()}, but they are not part of the map itself (so they are not counted by
+ * {@link #size()} nor printed by the <tt>list</tt> methods), and they can't be removed.
+ * </p>
  * 
  * @author Fred Deschenes
  */
@@ -39,6 +56,95 @@ public class OwnerProperties extends HashMap<String, Object> {
      * Separator for dotted (ex: "my.property") property keys
      */
     public final static String KEY_SEPARATOR = ".";
+    private static final char KEY_SEPARATOR_CHAR = '.';
+
+    private transient volatile Map<String, Object> index;
+    private transient volatile RecursiveKeys recursiveKeys;
+    private Layer layer;
+
+    /**
+     * Read-only properties kept outside of the memory, for instance in a file, that are looked up when requested.
+     *
+     * @since 1.0.11
+     */
+    public interface Index extends Serializable {
+
+        /**
+         * @param key   the key to search for.
+         * @return the value of the key, or <tt>null</tt> if the index doesn't contain it.
+         */
+        String get(String key);
+
+        /**
+         * @return the keys contained in the index.
+         */
+        Iterable<String> keys();
+    }
+
+    /**
+     * An index, together with the properties that were put before it and that it overrides.
+     */
+    private static final class Layer implements Serializable {
+        private static final long serialVersionUID = 3318932716541245083L;
+
+        final Index index;
+        final OwnerProperties below;
+
+        Layer(Index index, OwnerProperties below) {
+            this.index = index;
+            this.below = below;
+        }
+
+        Object get(String key) {
+            Object value = index.get(key);
+            if (value != null || below == null)
+                return value;
+            return below.get(key);
+        }
+
+        boolean containsKey(String key) {
+            return index.get(key) != null || below != null && below.containsKey(key);
+        }
+    }
+
+    /**
+     * The keys of the properties, including the dotted paths of the keys in the nested maps. Since the same path may
+     * be found through different nested maps, it's kept with the number of its occurrences.
+     */
+    private static final class RecursiveKeys {
+        private final Map<String, Integer> occurrences;
+        private final Set<String> view;
+
+        RecursiveKeys(Map<String, Integer> occurrences) {
+            this.occurrences = occurrences;
+            this.view = unmodifiableSet(occurrences.keySet());
+        }
+
+        RecursiveKeys copy() {
+            return new RecursiveKeys(new LinkedHashMap<String, Integer>(occurrences));
+        }
+
+        @SuppressWarnings("unchecked")
+        void add(String key, Object value) {
+            Integer count = occurrences.get(key);
+            occurrences.put(key, count == null ? 1 : count + 1);
+            if (value instanceof Map<?, ?>)
+                for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet())
+                    add(buildKey(key, entry.getKey()), entry.getValue());
+        }
+
+        @SuppressWarnings("unchecked")
+        void remove(String key, Object value) {
+            Integer count = occurrences.get(key);
+            if (count == null || count == 1)
+                occurrences.remove(key);
+            else
+                occurrences.put(key, count - 1);
+            if (value instanceof Map<?, ?>)
+                for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet())
+                    remove(buildKey(key, entry.getKey()), entry.getValue());
+        }
+    }
 
     /**
      * @see HashMap#HashMap()
@@ -66,6 +172,14 @@ public class OwnerProperties extends HashMap<String, Object> {
      */
     public OwnerProperties(Map<? extends String, ? extends Object> m) {
         super(m);
+        if (m instanceof OwnerProperties) {
+            OwnerProperties that = (OwnerProperties) m;
+            this.index = that.index; // never modified once built
+            RecursiveKeys keys = that.recursiveKeys;
+            if (keys != null)
+                this.recursiveKeys = keys.copy();
+            this.layer = that.layer;
+        }
     }
 
     /**
@@ -96,10 +210,144 @@ public class OwnerProperties extends HashMap<String, Object> {
      * @return  The found value, null otherwise
      */
     public Object get(String key) {
-        if (containsKey(key))
-            return super.get(key);
+        Object value = super.get(key);
+        if (value != null || super.containsKey(key) || key == null)
+            return value;
+
+        if (key.indexOf(KEY_SEPARATOR_CHAR) >= 0) {
+            value = index().get(key);
+            if (value != null)
+                return value;
+        }
+
+        Layer layer = this.layer;
+        return layer == null ? null : layer.get(key);
+    }
+
+    /**
+     * Adds an index of properties, which overrides the properties put so far.
+     *
+     * @param index     the index to add.
+     * @since 1.0.11
+     */
+    public void putIndex(Index index) {
+        if (index == null)
+            throw new IllegalArgumentException("index can't be null");
+        OwnerProperties below = isEmpty() && layer == null ? null : new OwnerProperties(this);
+        clear();
+        layer = new Layer(index, below);
+    }
+
+    /**
+     * @return the indexes of the properties, from the first added to the last.
+     */
+    private List<Index> indexes() {
+        List<Index> result = new ArrayList<Index>();
+        for (OwnerProperties props = this; props != null && props.layer != null; props = props.layer.below)
+            result.add(0, props.layer.index);
+        return result;
+    }
+
+    /**
+     * @return <tt>true</tt> if these properties have the same indexes of the given ones.
+     */
+    boolean hasSameIndexes(OwnerProperties other) {
+        return indexes().equals(other.indexes());
+    }
+
+    /**
+     * @return <tt>true</tt> if these properties have any index.
+     */
+    boolean isIndexed() {
+        return layer != null;
+    }
+
+    /**
+     * Replaces the indexes of these properties with the ones of the given properties, together with the properties
+     * that those indexes override.
+     */
+    void useIndexesOf(OwnerProperties other) {
+        layer = other.layer;
+    }
 
-        return resolve(key, this);
+    /**
+     * @return the keys of the properties kept in memory, excluding the keys of the indexes.
+     */
+    Set<String> keySetInMemory() {
+        Layer layer = this.layer;
+        if (layer == null || layer.below == null)
+            return keySet();
+        Set<String> result = new LinkedHashSet<String>(layer.below.keySetInMemory());
+        result.addAll(keySet());
+        return result;
+    }
+
+    /**
+     * @return the index from the full dotted path of every nested key to its value.
+     */
+    private Map<String, Object> index() {
+        Map<String, Object> result = index;
+        if (result == null) {
+            result = new HashMap<String, Object>();
+            index(result, this, null);
+            index = result;
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void index(Map<String, Object> result, Map<String, Object> map, String prefix) {
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            String key = buildKey(prefix, entry.getKey());
+            Object value = entry.getValue();
+            if (prefix != null) {
+                Object resolved = resolve(key, this); // the same path may be reachable by different nested maps
+                if (resolved != null)
+                    result.put(key, resolved);
+            }
+            if (value instanceof Map<?, ?>)
+                index(result, (Map<String, Object>) value, key);
+        }
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        index = null;
+        boolean existed = super.containsKey(key);
+        Object old = super.put(key, value);
+        updateRecursiveKeys(key, existed, old, value);
+        return old;
+    }
+
+    private void updateRecursiveKeys(String key, boolean existed, Object old, Object value) {
+        RecursiveKeys keys = recursiveKeys;
+        if (keys == null || existed && !(old instanceof Map<?, ?>) && !(value instanceof Map<?, ?>))
+            return;
+        if (existed)
+            keys.remove(key, old);
+        keys.add(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        index = null;
+        if (!super.containsKey(key))
+            return null;
+        Object old = super.remove(key);
+        RecursiveKeys keys = recursiveKeys;
+        if (keys != null)
+            keys.remove((String) key, old);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        index = null;
+        layer = null;
+        RecursiveKeys keys = recursiveKeys;
+        if (keys != null)
+            keys.occurrences.clear();
+        super.clear();
     }
 
     /**
@@ -124,7 +372,10 @@ public class OwnerProperties extends HashMap<String, Object> {
     public boolean containsKey(String key) {
         //TODO: Fix recursive keys (without breaking resolve and merge methods)
         //We could use 'keySetRecursive().contains', but that'd be pretty slow
-        return super.containsKey(key);
+        if (super.containsKey(key))
+            return true;
+        Layer layer = this.layer;
+        return layer != null && layer.containsKey(key);
     }
 
     @SuppressWarnings("unchecked")
@@ -153,11 +404,23 @@ public class OwnerProperties extends HashMap<String, Object> {
     @SuppressWarnings("unchecked")
     @Override
     public void putAll(Map<? extends String, ? extends Object> from) {
-        merge((Map<String, Object>) from, this);
+        index = null;
+        if (from instanceof OwnerProperties && ((OwnerProperties) from).layer != null)
+            putLayer(((OwnerProperties) from).layer);
+        merge((Map<String, Object>) from, this, null);
+    }
+
+    private void putLayer(Layer layer) {
+        if (layer.below != null)
+            putAll(layer.below);
+        putIndex(layer.index);
     }
 
+    /**
+     * @param path the path of the <tt>into</tt> map, <tt>null</tt> for this object.
+     */
     @SuppressWarnings({ "unchecked" })
-    private static void merge(Map<String, Object> from, Map<String, Object> into) {
+    private void merge(Map<String, Object> from, Map<String, Object> into, String path) {
         for (String key : from.keySet()) {
             Object fromValue = from.get(key);
 
@@ -165,59 +428,100 @@ public class OwnerProperties extends HashMap<String, Object> {
                 Object intoValue = into.get(key);
 
                 if (intoValue instanceof Map<?, ?> && fromValue instanceof Map<?, ?>) {
-                    merge((Map<String, Object>) fromValue, (Map<String, Object>) intoValue);
+                    merge((Map<String, Object>) fromValue, (Map<String, Object>) intoValue, buildKey(path, key));
                     continue;
                 }
             }
 
-            if (key.contains(KEY_SEPARATOR)) {
-                String[] splitKeyItems = key.split("\\" + KEY_SEPARATOR);
-                Map<String, Object> root = new HashMap<String, Object>();
-                Map<String, Object> current = root;
-
-                int length = splitKeyItems.length;
-
-                for (int i = 0; i < length - 1; i++) {
-                    Map<String, Object> newMap = new HashMap<String, Object>();
-
-                    current.put(splitKeyItems[i], newMap);
-
-                    current = newMap;
-                }
+            if (key.indexOf(KEY_SEPARATOR_CHAR) >= 0)
+                mergeDotted(key, fromValue, into, path);
+            else
+                put(into, path, key, fromValue);
+        }
+    }
 
-                current.put(splitKeyItems[splitKeyItems.length - 1], fromValue);
+    /**
+     * Puts the value into this object, or into one of its nested maps, keeping the recursive keys up to date.
+     */
+    private void put(Map<String, Object> into, String path, String key, Object value) {
+        if (into == this) {
+            put(key, value);
+            return;
+        }
+        boolean existed = into.containsKey(key);
+        Object old = into.put(key, value);
+        updateRecursiveKeys(buildKey(path, key), existed, old, value);
+    }
 
-                merge(root, into);
+    /**
+     * Merges the value of a dotted key (ex: "my.config.key") walking the nested maps, and creating the missing ones,
+     * along the key path.
+     */
+    @SuppressWarnings("unchecked")
+    private void mergeDotted(String key, Object fromValue, Map<String, Object> into, String path) {
+        int end = key.length();
+        while (end > 0 && key.charAt(end - 1) == KEY_SEPARATOR_CHAR)
+            end--; // trailing separators are ignored, as String.split() does
+        if (end == 0) {
+            put(into, path, key, fromValue);
+            return;
+        }
 
-            } else {
-                into.put(key, fromValue);
+        Map<String, Object> current = into;
+        String currentPath = path;
+        int start = 0;
+        int index = key.indexOf(KEY_SEPARATOR_CHAR);
+        while (index >= 0 && index < end) {
+            String item = key.substring(start, index);
+            Object value = current.get(item);
+            if (!(value instanceof Map<?, ?>)) {
+                value = new HashMap<String, Object>();
+                put(current, currentPath, item, value);
             }
+            current = (Map<String, Object>) value;
+            currentPath = buildKey(currentPath, item);
+            start = index + 1;
+            index = key.indexOf(KEY_SEPARATOR_CHAR, start);
         }
+
+        String last = key.substring(start, end);
+        Object intoValue = current.get(last);
+        if (intoValue instanceof Map<?, ?> && fromValue instanceof Map<?, ?>)
+            merge((Map<String, Object>) fromValue, (Map<String, Object>) intoValue, buildKey(currentPath, last));
+        else
+            put(current, currentPath, last, fromValue);
     }
 
     /**
+     * Returns the keys of the properties, including the dotted paths of the keys in the nested maps. The returned set
+     * is an unmodifiable view, reflecting the following changes of the properties; if the properties have an
+     * {@link Index}, it is instead an unmodifiable copy, including the keys of the index.
+     *
      * @see     Map#keySet()
      */
     public Set<String> keySetRecursive() {
-        Set<String> keySet = new LinkedHashSet<String>();
-
-        recursiveKeySet(keySet, this, null);
-
-        return keySet;
+        Layer layer = this.layer;
+        if (layer != null) {
+            Set<String> result = new LinkedHashSet<String>();
+            if (layer.below != null)
+                result.addAll(layer.below.keySetRecursive());
+            for (String key : layer.index.keys())
+                result.add(key);
+            result.addAll(inMemoryKeySetRecursive());
+            return unmodifiableSet(result);
+        }
+        return inMemoryKeySetRecursive();
     }
 
-    @SuppressWarnings("unchecked")
-    private static void recursiveKeySet(Set<String> insertInto, Map<String, Object> root, String prefix) {
-        for (String key : root.keySet()) {
-            String realKey = buildKey(prefix, key);
-            insertInto.add(realKey);
-
-            Object value = root.get(key);
-
-            if (value instanceof Map<?, ?>) {
-                recursiveKeySet(insertInto, (Map<String, Object>) value, realKey);
-            }
+    private Set<String> inMemoryKeySetRecursive() {
+        RecursiveKeys keys = recursiveKeys;
+        if (keys == null) {
+            keys = new RecursiveKeys(new LinkedHashMap<String, Integer>());
+            for (Map.Entry<String, Object> entry : entrySet())
+                keys.add(entry.getKey(), entry.getValue());
+            recursiveKeys = keys;
         }
+        return keys.view;
     }
 
     private static String buildKey(String prefix, String suffix) {
@@ -17,15 +17,22 @@ import static org.aeonbits.owner.Util.isFeatureDisabled;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.aeonbits.owner.PropertiesManager.Delegate;
 import org.aeonbits.owner.event.ReloadEvent;
@@ -46,49 +53,214 @@ class PropertiesInvocationHandler implements InvocationHandler, Serializable {
     private static final long serialVersionUID = -9178477775317705877L;
 
     private static final Method[] DELEGATES = findDelegates();
-    private final StrSubstitutor substitutor;
+    private static final Object UNRESOLVED = new Object();
+    private volatile StrSubstitutor substitutor; // null until the properties are loaded
     final PropertiesManager propertiesManager;
     private final Class<? extends Config> configClass;
-
-    private final Map<String, Object> preresolvedProperties = new HashMap<String, Object>();
+    private final boolean eagerResolution;
+    private final AtomicLong cacheGeneration = new AtomicLong();
+    private long slotsGeneration;
+
+    // rebuilt on deserialization, since they are derived from the config class or hold the converted values
+    private transient ConfigClassMetadata metadata;
+    private transient ConcurrentMap<String, Object> preresolvedProperties;
+    private transient ConcurrentMap<String, ConcurrentMap<String, Boolean>> dependentProperties; // inner keys
+    private transient Map<Method, MethodHandler> handlers;
+    private transient List<SlottedPropertyHandler> slottedHandlers;
+    private transient Object loadLock;
+    private transient Object slotsLock;
+    private transient volatile Object[] slots;
 
     PropertiesInvocationHandler(PropertiesManager manager, Class<? extends Config> configClass) {
         this.propertiesManager = manager;
         this.configClass = configClass;
+        this.eagerResolution = ConfigClassMetadata.of(configClass).isEagerResolution();
+        init();
+
+        CacheInvalidator invalidator = new CacheInvalidator();
+        this.propertiesManager.addReloadListener(invalidator);
+        this.propertiesManager.addPropertyChangeListener(invalidator);
 
-        this.propertiesManager.addReloadListener(new ReloadListener() {
-            public void reloadPerformed(ReloadEvent event) {
-                synchronized (preresolvedProperties) {
-                    preresolvedProperties.clear();
-                }
+        if (!metadata.isLazyLoad())
+            load();
+    }
+
+    private void init() {
+        metadata = ConfigClassMetadata.of(configClass);
+        preresolvedProperties = new ConcurrentHashMap<String, Object>();
+        dependentProperties = new ConcurrentHashMap<String, ConcurrentMap<String, Boolean>>();
+        slottedHandlers = new ArrayList<SlottedPropertyHandler>();
+        loadLock = new Object();
+        slotsLock = new Object();
+        handlers = buildDispatchTable();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        init();
+    }
+
+    /**
+     * Drops the cached values when the properties change. It's registered on the {@link PropertiesManager}, and
+     * serialized with it.
+     */
+    private class CacheInvalidator implements ReloadListener, PropertyChangeListener, Serializable {
+        private static final long serialVersionUID = 4523016253437791212L;
+
+        public void reloadPerformed(ReloadEvent event) {
+            // the changed properties have already been invalidated by the property change events, except for the
+            // ones served by the indexes, which are not compared on reload
+            if (!event.getOldProperties().hasSameIndexes(event.getNewProperties())) {
+                cacheGeneration.incrementAndGet();
+                preresolvedProperties.clear();
             }
-        });
+            if (eagerResolution)
+                refreshSlots();
+        }
+
+        public void propertyChange(PropertyChangeEvent evt) {
+            cacheGeneration.incrementAndGet();
+            invalidate(evt.getPropertyName());
+            if (eagerResolution)
+                invalidateSlots();
+        }
+    }
+
+    /**
+     * Loads the properties, if the config object is lazily loaded and hasn't been invoked yet.
+     */
+    void ensureLoaded() {
+        if (substitutor == null)
+            load();
+    }
+
+    /**
+     * Loads the properties, unless they have already been loaded by another thread.
+     */
+    private void load() {
+        synchronized (loadLock) {
+            if (substitutor != null)
+                return;
+            substitutor = new StrSubstitutor(propertiesManager.load());
+            if (eagerResolution)
+                refreshSlots();
+        }
+    }
+
+    /**
+     * Removes from the cache the given property and the properties whose value refers to it, directly or through other
+     * variables.
+     */
+    private void invalidate(String changedKey) {
+        preresolvedProperties.remove(changedKey);
+        ConcurrentMap<String, Boolean> dependents = dependentProperties.remove(changedKey);
+        if (dependents != null)
+            for (String dependent : dependents.keySet())
+                preresolvedProperties.remove(dependent);
+    }
 
-        this.propertiesManager.addPropertyChangeListener(new PropertyChangeListener() {
-            public void propertyChange(PropertyChangeEvent evt) {
-                synchronized (preresolvedProperties) {
-                    preresolvedProperties.remove(evt.getPropertyName());
-                }
+    /**
+     * Records that the cached value of the given property has been computed reading the given variables. Since a
+     * change to a property containing dots may be notified for any of the parent keys (i.e. <tt>foo.bar.baz</tt> is
+     * changed when <tt>foo</tt> is replaced on reload), the dependency is recorded also for the parent keys.
+     */
+    private void addDependencies(String key, Collection<String> variables) {
+        for (String variable : variables) {
+            String name = variable;
+            while (true) {
+                dependents(name).put(key, Boolean.TRUE);
+                int index = name.lastIndexOf(OwnerProperties.KEY_SEPARATOR);
+                if (index < 0)
+                    break;
+                name = name.substring(0, index);
             }
-        });
+        }
+    }
 
-        this.substitutor = new StrSubstitutor(manager.load());
+    private ConcurrentMap<String, Boolean> dependents(String variable) {
+        ConcurrentMap<String, Boolean> result = dependentProperties.get(variable);
+        if (result == null) {
+            result = new ConcurrentHashMap<String, Boolean>();
+            ConcurrentMap<String, Boolean> existing = dependentProperties.putIfAbsent(variable, result);
+            if (existing != null)
+                return existing;
+        }
+        return result;
     }
 
     public Object invoke(Object proxy, Method invokedMethod, Object[] args) throws Throwable {
+        ensureLoaded();
         propertiesManager.syncReloadCheck();
-        Method delegate = getDelegateMethod(invokedMethod);
+        MethodHandler handler = handlers.get(invokedMethod);
+        if (handler == null)
+            handler = newHandler(invokedMethod);
+        return handler.invoke(args);
+    }
+
+    /**
+     * Returns a substitutor resolving variables against the current snapshot of the properties.
+     */
+    private StrSubstitutor substitutor() {
+        OwnerProperties current = propertiesManager.snapshot();
+        StrSubstitutor result = substitutor;
+        if (result.values != current)
+            substitutor = result = result.withValues(current);
+        return result;
+    }
+
+    private Map<Method, MethodHandler> buildDispatchTable() {
+        Map<Method, MethodHandler> result = new HashMap<Method, MethodHandler>();
+        for (Method method : configClass.getMethods()) {
+            MethodHandler handler = newHandler(method);
+            if (eagerResolution && handler instanceof CachedPropertyHandler) {
+                SlottedPropertyHandler slotted = new SlottedPropertyHandler(method, slottedHandlers.size());
+                slottedHandlers.add(slotted);
+                handler = slotted;
+            }
+            result.put(method, handler);
+        }
+        for (Method method : Object.class.getMethods())
+            if (getDelegateMethod(method) != null)
+                result.put(method, newHandler(method));
+        return result;
+    }
+
+    private MethodHandler newHandler(Method method) {
+        Method delegate = getDelegateMethod(method);
         if (delegate != null)
-            return delegate(delegate, args);
+            return new DelegateHandler(delegate);
 
-        return resolveProperty(invokedMethod, args);
+        boolean cachingEnabled = !isFeatureDisabled(method, RESULT_CACHING);
+        if (cachingEnabled && method.getParameterTypes().length == 0)
+            return new CachedPropertyHandler(method);
+        return new PropertyHandler(method);
     }
 
-    private Object delegate(Method delegate, Object[] args) throws Throwable {
-        try {
-            return delegate.invoke(propertiesManager, args);
-        } catch (InvocationTargetException e) {
-            throw e.getTargetException();
+    /**
+     * Converts the values for all the slotted methods, and publishes them unless the properties have been changed
+     * in the meantime.
+     */
+    private Object[] refreshSlots() {
+        long generation;
+        synchronized (slotsLock) {
+            generation = slotsGeneration;
+        }
+
+        Object[] result = new Object[slottedHandlers.size()];
+        for (SlottedPropertyHandler handler : slottedHandlers)
+            result[handler.slot] = handler.precompute();
+
+        synchronized (slotsLock) {
+            if (generation == slotsGeneration)
+                slots = result;
+        }
+        return result;
+    }
+
+    private void invalidateSlots() {
+        synchronized (slotsLock) {
+            slotsGeneration++;
+            slots = null;
         }
     }
 
@@ -104,63 +276,153 @@ class PropertiesInvocationHandler implements InvocationHandler, Serializable {
                 && Arrays.equals(a.getParameterTypes(), b.getParameterTypes());
     }
 
-    private Object resolveProperty(Method method, Object... args) {
-        String key = expandKey(method);
+    /**
+     * Precompiled handling for a single method of the config interface, resolved once when the handler is created.
+     */
+    private interface MethodHandler {
+        Object invoke(Object[] args) throws Throwable;
+    }
 
-        boolean cachingEnabled = !isFeatureDisabled(method, RESULT_CACHING);
+    private class DelegateHandler implements MethodHandler {
+        private final Method delegate;
 
-        Object value = null;
+        DelegateHandler(Method delegate) {
+            this.delegate = delegate;
+        }
 
-        if ((args == null || args.length == 0) && cachingEnabled) {
-            synchronized (preresolvedProperties) {
-                value = preresolvedProperties.get(key);
+        public Object invoke(Object[] args) throws Throwable {
+            try {
+                return delegate.invoke(propertiesManager, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
             }
+        }
+    }
 
-            if (value != null)
-                return value;
+    private class PropertyHandler implements MethodHandler {
+        final Method method;
+        private final Class<?> returnType;
+        private final String key;
+        private final boolean keyNeedsExpansion;
+        private final boolean variableExpansionEnabled;
+        private final boolean parameterFormattingEnabled;
+
+        PropertyHandler(Method method) {
+            this.method = method;
+            this.returnType = method.getReturnType();
+            this.key = key(method, configClass);
+            this.variableExpansionEnabled = !isFeatureDisabled(method, VARIABLE_EXPANSION);
+            this.parameterFormattingEnabled = !isFeatureDisabled(method, PARAMETER_FORMATTING);
+            this.keyNeedsExpansion = variableExpansionEnabled && key.contains("${");
         }
 
-        value = propertiesManager.getProperty(key);
-        if (value == null)
-            return null;
+        public Object invoke(Object[] args) {
+            return resolve(expandKey(), args);
+        }
 
-        Object result = convert(method, method.getReturnType(), format(method, expandVariables(method, value), args));
-        if (result == Converters.NULL)
-            return null;
+        String expandKey() {
+            if (keyNeedsExpansion)
+                return substitutor().replace(key);
+            return key;
+        }
 
-        if (cachingEnabled) {
-            synchronized (preresolvedProperties) {
-                preresolvedProperties.put(key, result);
-            }
+        Object resolve(String expandedKey, Object[] args) {
+            return resolve(expandedKey, args, null);
         }
 
-        return result;
-    }
+        /**
+         * @param variables the collection where the names of the variables read while expanding the value are added,
+         *                  may be null.
+         */
+        Object resolve(String expandedKey, Object[] args, Collection<String> variables) {
+            Object value = propertiesManager.getProperty(expandedKey);
+            if (value == null)
+                return null;
+
+            Object result = convert(method, returnType, format(expandVariables(value, variables), args));
+            if (result == Converters.NULL)
+                return null;
+            return result;
+        }
 
-    private String expandKey(Method method) {
-        String key = key(method, configClass);
-        if (isFeatureDisabled(method, VARIABLE_EXPANSION))
-            return key;
-        return substitutor.replace(key);
+        private Object format(Object format, Object[] args) {
+            if (!parameterFormattingEnabled || args == null || args.length == 0 || !(format instanceof String))
+                return format;
+
+            return String.format((String) format, args);
+        }
+
+        private Object expandVariables(Object value, Collection<String> variables) {
+            if (variableExpansionEnabled && value instanceof String)
+                return substitutor().replace((String) value, variables);
+            return value;
+        }
     }
 
-    private Object format(Method method, Object format, Object... args) {
-        if (isFeatureDisabled(method, PARAMETER_FORMATTING) || args == null || args.length == 0
-                || !(format instanceof String))
-            return format;
+    private class CachedPropertyHandler extends PropertyHandler {
+
+        CachedPropertyHandler(Method method) {
+            super(method);
+        }
+
+        @Override
+        public Object invoke(Object[] args) {
+            String expandedKey = expandKey();
 
-        return String.format((String) format, args);
+            Object value = preresolvedProperties.get(expandedKey);
+            if (value != null)
+                return value == Converters.NULL ? null : value;
+
+            long generation = cacheGeneration.get();
+            List<String> variables = new ArrayList<String>();
+            variables.add(expandedKey);
+            Object result = resolve(expandedKey, args, variables);
+            addDependencies(expandedKey, variables);
+            Object cached = result == null ? Converters.NULL : result;
+            preresolvedProperties.put(expandedKey, cached);
+
+            // the properties changed while resolving: the value may be stale, so it must not stay in the cache.
+            if (generation != cacheGeneration.get())
+                preresolvedProperties.remove(expandedKey, cached);
+            return result;
+        }
     }
 
-    private Object expandVariables(Method method, Object value) {
-        if (isFeatureDisabled(method, VARIABLE_EXPANSION))
-            return value;
+    /**
+     * Handler for the methods of an {@link Config.EagerResolution} config: the converted value is read from a slot that is
+     * computed in advance, when the properties are loaded, reloaded or changed.
+     */
+    private class SlottedPropertyHandler extends CachedPropertyHandler {
+        private final int slot;
+
+        SlottedPropertyHandler(Method method, int slot) {
+            super(method);
+            this.slot = slot;
+        }
 
-        if (value instanceof String) {
-            return substitutor.replace((String) value);
+        @Override
+        public Object invoke(Object[] args) {
+            Object[] current = slots;
+            if (current == null)
+                current = refreshSlots();
+
+            Object value = current[slot];
+            if (value == UNRESOLVED)
+                return super.invoke(args);
+            if (value == Converters.NULL)
+                return null;
+            return value;
         }
 
-        return value;
+        Object precompute() {
+            try {
+                Object result = resolve(expandKey(), null);
+                return result == null ? Converters.NULL : result;
+            } catch (RuntimeException e) {
+                // the conversion error is reported when the method is actually invoked.
+                return UNRESOLVED;
+            }
+        }
     }
 
     private static Method[] findDelegates() {
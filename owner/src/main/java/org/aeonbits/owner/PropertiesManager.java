@@ -24,19 +24,20 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.*;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static java.lang.annotation.ElementType.METHOD;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
 import static java.util.Collections.synchronizedList;
-import static org.aeonbits.owner.Config.LoadType.FIRST;
 import static org.aeonbits.owner.PropertiesMapper.defaults;
 import static org.aeonbits.owner.Util.*;
 
 /**
  * Loads properties and manages access to properties handling concurrency.
+ * <p/>
+ * The properties are held in an immutable snapshot: readers just dereference the current snapshot without locking,
+ * while changes are applied to a copy that is then published atomically, replacing the current one.
  *
  * @author Luigi R. Viggiano
  */
@@ -45,16 +46,15 @@ class PropertiesManager implements Reloadable, Accessible {
 
     private final Class<? extends Config> clazz;
     private final OwnerProperties[] imports;
-    private final OwnerProperties properties;
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-    private final ReadLock readLock = lock.readLock();
-    private final WriteLock writeLock = lock.writeLock();
+    private volatile OwnerProperties properties;
+    private final ReentrantLock writeLock = new ReentrantLock();
 
     private final LoadType loadType;
+    private final boolean compactStorage;
     private final List<URL> urls;
     private final HotReloadLogic hotReloadLogic;
 
-    private volatile boolean loading = false;
+    private final AtomicInteger loading = new AtomicInteger();
 
     final List<ReloadListener> reloadListeners = synchronizedList(new LinkedList<ReloadListener>());
 
@@ -84,33 +84,32 @@ class PropertiesManager implements Reloadable, Accessible {
 
     PropertiesManager(Class<? extends Config> clazz, OwnerProperties properties, ScheduledExecutorService scheduler,
             VariablesExpander expander, LoadersManager loaders, OwnerProperties... imports) {
+        this(clazz, properties, scheduler, null, expander, loaders, imports);
+    }
+
+    PropertiesManager(Class<? extends Config> clazz, OwnerProperties properties, ScheduledExecutorService scheduler,
+            FileWatcher watcher, VariablesExpander expander, LoadersManager loaders, OwnerProperties... imports) {
         this.clazz = clazz;
         this.properties = properties;
         this.loaders = loaders;
         this.imports = imports;
 
-        ConfigURLFactory urlFactory = new ConfigURLFactory(clazz.getClassLoader(), expander);
-        urls = toURLs(getAnnotationCheckInterfaces(clazz, Sources.class), urlFactory);
+        ConfigURLFactory urlFactory = new ConfigURLFactory(clazz.getClassLoader(), expander,
+                loaders.resolvedURLs(clazz.getClassLoader()));
+        ConfigClassMetadata metadata = ConfigClassMetadata.of(clazz);
+        urls = toURLs(metadata.sources(), urlFactory);
 
-        LoadPolicy loadPolicy = getAnnotationCheckInterfaces(clazz, LoadPolicy.class);
-        loadType = (loadPolicy != null) ? loadPolicy.value() : FIRST;
+        loadType = metadata.loadType();
+        compactStorage = metadata.isCompactStorage();
 
-        HotReload hotReload = getAnnotationCheckInterfaces(clazz, HotReload.class);
-        if (hotReload != null) {
-            hotReloadLogic = new HotReloadLogic(hotReload, urls, this);
-
-            if (hotReloadLogic.isAsync())
-                scheduler.scheduleAtFixedRate(new Runnable() {
-                    public void run() {
-                        hotReloadLogic.checkAndReload();
-                    }
-                }, hotReload.value(), hotReload.value(), hotReload.unit());
-        } else {
+        HotReload hotReload = metadata.hotReload();
+        if (hotReload != null)
+            hotReloadLogic = new HotReloadLogic(hotReload, urls, this, watcher, scheduler);
+        else
             hotReloadLogic = null;
-        }
     }
 
-    private List<URL> toURLs(Sources sources, ConfigURLFactory urlFactory) {
+    private List<URL> toURLs(String[] sources, ConfigURLFactory urlFactory) {
         String[] specs = specs(sources, urlFactory);
         ArrayList<URL> result = new ArrayList<URL>();
         for (String spec : specs) {
@@ -125,9 +124,9 @@ class PropertiesManager implements Reloadable, Accessible {
         return result;
     }
 
-    private String[] specs(Sources sources, ConfigURLFactory urlFactory) {
+    private String[] specs(String[] sources, ConfigURLFactory urlFactory) {
         if (sources != null)
-            return sources.value();
+            return sources;
         return defaultSpecs(urlFactory);
     }
 
@@ -136,37 +135,67 @@ class PropertiesManager implements Reloadable, Accessible {
         return loaders.defaultSpecs(prefix);
     }
 
+    /**
+     * Loads the properties into the object specified in the constructor, which then becomes the current snapshot, or
+     * is replaced by its compact copy for the {@link Config.CompactStorage} config objects.
+     * This is meant to be called once, before the config object is accessed.
+     */
     OwnerProperties load() {
         writeLock.lock();
         try {
-            return load(properties);
+            OwnerProperties loaded = load(properties, true);
+            if (compactStorage && !loaded.isIndexed())
+                properties = loaded = CompactOwnerProperties.of(loaded);
+            return loaded;
         } finally {
             writeLock.unlock();
         }
     }
 
-    private OwnerProperties load(OwnerProperties props) {
+    /**
+     * @param useSnapshot   whether the defaults and the properties read from the sources can be taken from the
+     *                      snapshot kept by the factory, if it's still valid.
+     */
+    private OwnerProperties load(OwnerProperties props, boolean useSnapshot) {
+        loading.incrementAndGet();
         try {
-            loading = true;
-            defaults(props, clazz);
-            OwnerProperties loadedFromFile = doLoad();
-            merge(props, loadedFromFile);
+            SnapshotStore snapshots = loaders.snapshots();
+            List<String> fingerprint = snapshots == null || !props.isEmpty() ? null
+                    : snapshots.fingerprint(clazz, urls, loaders.loaders());
+            if (fingerprint == null || !useSnapshot || !snapshots.read(clazz, fingerprint, props)) {
+                defaults(props, clazz);
+                OwnerProperties loadedFromFile = doLoad();
+                merge(props, loadedFromFile);
+                if (fingerprint != null && !props.isIndexed())
+                    snapshots.write(clazz, fingerprint, props);
+            }
             merge(props, reverse(imports));
             return props;
         } finally {
-            loading = false;
+            loading.decrementAndGet();
         }
     }
 
+    /**
+     * Reads the sources and computes the changed keys without holding any lock, so that readers and writers are not
+     * held up by the I/O; the write lock is only taken to notify the transactional listeners and to publish the new
+     * snapshot.
+     */
     @Delegate
     public void reload() {
+        loaders.invalidate(urls); // an explicit reload reads the sources again, even if their files look unchanged
+        OwnerProperties loaded = load(new OwnerProperties(), false);
+        OwnerProperties base = properties;
+        Set<String> changedKeys = changedKeys(base, loaded);
+
         writeLock.lock();
         try {
-            OwnerProperties loaded = load(new OwnerProperties());
-            List<PropertyChangeEvent> events = fireBeforePropertyChangeEvents(keys(properties, loaded), properties,
-                    loaded);
-            ReloadEvent reloadEvent = fireBeforeReloadEvent(events, properties, loaded);
-            applyPropertyChangeEvents(events);
+            OwnerProperties current = properties;
+            if (current != base)
+                changedKeys = changedKeys(current, loaded); // modified by someone else while we were loading
+            List<PropertyChangeEvent> events = fireBeforePropertyChangeEvents(changedKeys, current, loaded);
+            ReloadEvent reloadEvent = fireBeforeReloadEvent(events, current, loaded);
+            applyPropertyChangeEvents(events, loaded);
             firePropertyChangeEvents(events);
             fireReloadEvent(reloadEvent);
         } catch (RollbackBatchException e) {
@@ -176,7 +205,21 @@ class PropertiesManager implements Reloadable, Accessible {
         }
     }
 
-    private <T extends Map<String, Object>> Set<String> keys(T... maps) {
+    /**
+     * The keys served by an {@link OwnerProperties.Index} are not compared, since there may be too many of them: when
+     * the indexes change they are replaced all at once on reload.
+     */
+    private static Set<String> changedKeys(OwnerProperties oldValues, OwnerProperties newValues) {
+        Set<String> result = new HashSet<String>();
+        Set<String> keys = new HashSet<String>(oldValues.keySetInMemory());
+        keys.addAll(newValues.keySetInMemory());
+        for (String key : keys)
+            if (!eq(oldValues.get(key), newValues.get(key)))
+                result.add(key);
+        return result;
+    }
+
+    private static <T extends Map<String, Object>> Set<String> keys(T... maps) {
         Set<String> keys = new HashSet<String>();
         for (Map<String, ?> map : maps)
             keys.addAll(map.keySet());
@@ -184,8 +227,30 @@ class PropertiesManager implements Reloadable, Accessible {
     }
 
     private void applyPropertyChangeEvents(List<PropertyChangeEvent> events) {
+        applyPropertyChangeEvents(events, null);
+    }
+
+    /**
+     * @param reloaded  the reloaded properties, whose indexes replace the current ones, or <tt>null</tt>.
+     */
+    private void applyPropertyChangeEvents(List<PropertyChangeEvent> events, OwnerProperties reloaded) {
+        OwnerProperties next = copy();
+        if (reloaded != null && (reloaded.isIndexed() || next.isIndexed()))
+            next.useIndexesOf(reloaded);
         for (PropertyChangeEvent event : events)
-            performSetProperty(event.getPropertyName(), event.getNewValue());
+            performSetProperty(next, event.getPropertyName(), event.getNewValue());
+        properties = next;
+    }
+
+    private OwnerProperties copy() {
+        return new OwnerProperties(properties);
+    }
+
+    /**
+     * @return the current snapshot of the properties, that must not be modified.
+     */
+    OwnerProperties snapshot() {
+        return properties;
     }
 
     private void fireReloadEvent(ReloadEvent reloadEvent) {
@@ -286,12 +351,7 @@ class PropertiesManager implements Reloadable, Accessible {
 
     @Delegate
     public Object getProperty(String key) {
-        readLock.lock();
-        try {
-            return properties.get(key);
-        } finally {
-            readLock.unlock();
-        }
+        return properties.get(key);
     }
 
     void syncReloadCheck() {
@@ -301,47 +361,27 @@ class PropertiesManager implements Reloadable, Accessible {
 
     @Delegate
     public Object getProperty(String key, Object defaultValue) {
-        readLock.lock();
-        try {
-            if (properties.containsKey(key)) {
-                return properties.get(key);
-            }
-
-            return defaultValue;
-        } finally {
-            readLock.unlock();
+        OwnerProperties current = properties;
+        if (current.containsKey(key)) {
+            return current.get(key);
         }
+
+        return defaultValue;
     }
 
     @Delegate
     public Set<String> propertyNames() {
-        readLock.lock();
-        try {
-            LinkedHashSet<String> result = new LinkedHashSet<String>(properties.keySetRecursive());
-            return result;
-        } finally {
-            readLock.unlock();
-        }
+        return properties.keySetRecursive(); // the snapshot is never modified, so is its view
     }
 
     @Delegate
     public void list(PrintStream out) throws IOException {
-        readLock.lock();
-        try {
-            properties.list(out);
-        } finally {
-            readLock.unlock();
-        }
+        properties.list(out);
     }
 
     @Delegate
     public void list(PrintWriter out) {
-        readLock.lock();
-        try {
-            properties.list(out);
-        } finally {
-            readLock.unlock();
-        }
+        properties.list(out);
     }
 
     @Delegate
@@ -355,7 +395,9 @@ class PropertiesManager implements Reloadable, Accessible {
 
                 PropertyChangeEvent event = new PropertyChangeEvent(proxy, key, oldValue, newValue);
                 fireBeforePropertyChange(event);
-                Object result = performSetProperty(key, newValue);
+                OwnerProperties next = copy();
+                Object result = performSetProperty(next, key, newValue);
+                properties = next;
                 firePropertyChange(event);
                 return result;
             } catch (RollbackException e) {
@@ -366,10 +408,10 @@ class PropertiesManager implements Reloadable, Accessible {
         }
     }
 
-    private Object performSetProperty(String key, Object value) {
+    private static Object performSetProperty(OwnerProperties target, String key, Object value) {
         //FIXME: See MANTICORE-3844 in JIRA
-        // return (value == null) ? performRemoveProperty(key) : asString(properties.put(key, value));
-        return asString(properties.put(key, value));
+        // return (value == null) ? performRemoveProperty(target, key) : asString(target.put(key, value));
+        return asString(target.put(key, value));
     }
 
     @Delegate
@@ -380,7 +422,9 @@ class PropertiesManager implements Reloadable, Accessible {
             Object newValue = null;
             PropertyChangeEvent event = new PropertyChangeEvent(proxy, key, oldValue, newValue);
             fireBeforePropertyChange(event);
-            String result = performRemoveProperty(key);
+            OwnerProperties next = copy();
+            String result = performRemoveProperty(next, key);
+            properties = next;
             firePropertyChange(event);
             return result;
         } catch (RollbackException e) {
@@ -390,8 +434,8 @@ class PropertiesManager implements Reloadable, Accessible {
         }
     }
 
-    private String performRemoveProperty(String key) {
-        return asString(properties.remove(key));
+    private static String performRemoveProperty(OwnerProperties target, String key) {
+        return asString(target.remove(key));
     }
 
     @Delegate
@@ -416,16 +460,11 @@ class PropertiesManager implements Reloadable, Accessible {
     @Delegate
     @Override
     public String toString() {
-        readLock.lock();
-        try {
-            return properties.toString();
-        } finally {
-            readLock.unlock();
-        }
+        return properties.toString();
     }
 
     boolean isLoading() {
-        return loading;
+        return loading.get() > 0;
     }
 
     private List<PropertyChangeEvent> fireBeforePropertyChangeEvents(Set<String> keys, Map<String, Object> oldValues,
@@ -473,6 +512,7 @@ class PropertiesManager implements Reloadable, Accessible {
         if (!(handler instanceof PropertiesInvocationHandler))
             return false;
         PropertiesInvocationHandler propsInvocationHandler = (PropertiesInvocationHandler) handler;
+        propsInvocationHandler.ensureLoaded(); // the other config object may be lazily loaded
         PropertiesManager that = propsInvocationHandler.propertiesManager;
         return this.equals(that);
     }
@@ -480,17 +520,7 @@ class PropertiesManager implements Reloadable, Accessible {
     private boolean equals(PropertiesManager that) {
         if (!this.isAssignationCompatibleWith(that))
             return false;
-        this.readLock.lock();
-        try {
-            that.readLock.lock();
-            try {
-                return this.properties.equals(that.properties);
-            } finally {
-                that.readLock.unlock();
-            }
-        } finally {
-            this.readLock.unlock();
-        }
+        return this.properties.equals(that.properties);
     }
 
     private boolean isAssignationCompatibleWith(PropertiesManager that) {
@@ -500,12 +530,7 @@ class PropertiesManager implements Reloadable, Accessible {
     @Delegate
     @Override
     public int hashCode() {
-        readLock.lock();
-        try {
-            return properties.hashCode();
-        } finally {
-            readLock.unlock();
-        }
+        return properties.hashCode();
     }
 
 }
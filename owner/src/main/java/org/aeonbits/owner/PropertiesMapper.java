@@ -17,8 +17,6 @@ import java.util.Map;
 
 import org.aeonbits.owner.Config.DefaultValue;
 import org.aeonbits.owner.Config.DefaultValues;
-import org.aeonbits.owner.Config.Group;
-import org.aeonbits.owner.Config.Key;
 
 /**
  * Maps methods to properties keys and defaultValues. Maps a class to default property values.
@@ -34,21 +32,7 @@ final class PropertiesMapper {
     }
 
     static String key(Method method, Class<? extends Config> configClass) {
-        Key key = getAnnotationCheckInterfaces(method, Key.class);
-
-        Group group = getAnnotationCheckInterfaces(configClass, Group.class);
-
-        String suffix = (key == null) ? method.getName() : key.value();
-
-        if (group == null)
-            return suffix;
-
-        String prefix = group.value();
-
-        if (!prefix.endsWith(KEY_SEPARATOR))
-            prefix += KEY_SEPARATOR;
-
-        return prefix + suffix;
+        return ConfigClassMetadata.of(configClass).method(method).key();
     }
 
     static Object defaultValue(Method method) {
@@ -73,18 +57,13 @@ final class PropertiesMapper {
     }
 
     static void defaults(OwnerProperties properties, Class<? extends Config> clazz) {
-        Method[] methods = clazz.getMethods();
-
         Map<String, Object> defaults = new HashMap<String, Object>();
-
-        for (Method method : methods) {
-            String key = key(method, clazz);
-            Object value = defaultValue(method);
-
-            if (value != null) {
-                defaults.put(key, value);
-
-            }
+        for (Map.Entry<String, Object> entry : ConfigClassMetadata.of(clazz).defaults().entrySet()) {
+            Object value = entry.getValue();
+            // arrays from @DefaultValues are shared, each instance gets its own copy.
+            if (value instanceof String[])
+                value = ((String[]) value).clone();
+            defaults.put(entry.getKey(), value);
         }
 
         properties.putAll(defaults);
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static org.aeonbits.owner.Util.fileFromURL;
+import static org.aeonbits.owner.Util.ignore;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.aeonbits.owner.loaders.Loader;
+
+/**
+ * Keeps on disk a snapshot of the properties loaded for every config class, that is the default values merged with
+ * the properties read from the sources, so that a later run can read it instead of parsing the sources again.
+ * <p/>
+ * A snapshot is valid as long as its fingerprint is unchanged: the fingerprint holds the URLs of the sources, the class
+ * names of the registered loaders, and the length and modification time of the files of the sources and of the class
+ * files of the config interfaces. The snapshots of the config objects whose sources or classes are not on the
+ * filesystem, or in a jar on the filesystem, are not kept.
+ * <p/>
+ * The snapshot file starts with the fingerprint, followed by the properties, where every value is preceded by its
+ * type. Only the strings, the string arrays and the nested maps of them are kept: the snapshot is not written when
+ * the properties hold other values, so that reading a snapshot never instantiates other classes.
+ *
+ * @author Luigi R. Viggiano
+ * @since 1.0.11
+ */
+final class SnapshotStore {
+    private static final int MAGIC = 0x4f574e53; // "OWNS"
+    private static final int VERSION = 2;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int MAX_DEPTH = 256; // of the nested maps
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte STRING_ARRAY = 2;
+    private static final byte HASH_MAP = 3;
+    private static final byte LINKED_HASH_MAP = 4;
+
+    private final File directory;
+
+    SnapshotStore(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return the fingerprint of the properties of the given config class, or <tt>null</tt> if they can't be kept in
+     * a snapshot.
+     */
+    List<String> fingerprint(Class<? extends Config> clazz, List<URL> urls, List<Loader> loaders) {
+        List<String> result = new ArrayList<String>();
+        for (Class<?> type : hierarchy(clazz, new LinkedHashSet<Class<?>>())) {
+            ClassLoader classLoader = type.getClassLoader();
+            if (classLoader == null)
+                continue; // a class of the JRE
+            URL url = classLoader.getResource(type.getName().replace('.', '/') + ".class");
+            if (url == null || !addFile(result, "class:" + type.getName(), url))
+                return null;
+        }
+        for (URL url : urls)
+            if (!addFile(result, "source:" + url.toExternalForm(), url))
+                return null;
+        for (Loader loader : loaders)
+            result.add("loader:" + loader.getClass().getName());
+        return result;
+    }
+
+    private static Set<Class<?>> hierarchy(Class<?> type, Set<Class<?>> result) {
+        if (result.add(type))
+            for (Class<?> parent : type.getInterfaces())
+                hierarchy(parent, result);
+        return result;
+    }
+
+    private static boolean addFile(List<String> result, String name, URL url) {
+        File file = fileFromURL(url);
+        if (file == null)
+            return false;
+        if (file.exists())
+            result.add(name + " " + file.length() + " " + file.lastModified());
+        else
+            result.add(name + " missing");
+        return true;
+    }
+
+    private File file(Class<? extends Config> clazz) {
+        return new File(directory, clazz.getName() + ".snapshot");
+    }
+
+    /**
+     * Reads the snapshot of the given config class into the given properties, if it has the given fingerprint.
+     *
+     * @return <tt>true</tt> if the snapshot has been read.
+     */
+    boolean read(Class<? extends Config> clazz, List<String> fingerprint, OwnerProperties result) {
+        File file = file(clazz);
+        if (!file.isFile())
+            return false;
+        try {
+            ByteBuffer buffer = map(file);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || !fingerprint.equals(readFingerprint(buffer)))
+                return false;
+            Map<String, Object> entries = new HashMap<String, Object>(); // nothing is put if the file is corrupted
+            for (int i = readLength(buffer, 5); i > 0; i--)
+                entries.put(readString(buffer), readValue(buffer, 0));
+            for (Map.Entry<String, Object> entry : entries.entrySet())
+                result.put(entry.getKey(), entry.getValue());
+            return true;
+        } catch (IOException e) {
+            return false;
+        } catch (RuntimeException e) {
+            return false; // truncated or corrupted
+        }
+    }
+
+    private static ByteBuffer map(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            return raf.getChannel().map(READ_ONLY, 0, raf.length()); // the mapping stays valid after closing
+        } finally {
+            raf.close();
+        }
+    }
+
+    private static List<String> readFingerprint(ByteBuffer buffer) throws IOException {
+        List<String> result = new ArrayList<String>();
+        for (int i = readLength(buffer, 4); i > 0; i--)
+            result.add(readString(buffer));
+        return result;
+    }
+
+    /**
+     * Reads the length of a string, an array or a map, checking that the remaining bytes are enough for it before
+     * anything is allocated, since the file may be corrupted.
+     *
+     * @param itemSize  the minimum number of bytes of an item.
+     */
+    private static int readLength(ByteBuffer buffer, int itemSize) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining() / itemSize)
+            throw new IOException("Invalid length: " + length);
+        return length;
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        byte[] bytes = new byte[readLength(buffer, 1)];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static Object readValue(ByteBuffer buffer, int depth) throws IOException {
+        byte type = buffer.get();
+        switch (type) {
+        case NULL:
+            return null;
+        case STRING:
+            return readString(buffer);
+        case STRING_ARRAY:
+            String[] array = new String[readLength(buffer, 4)];
+            for (int i = 0; i < array.length; i++)
+                array[i] = readString(buffer);
+            return array;
+        case HASH_MAP:
+        case LINKED_HASH_MAP:
+            if (depth == MAX_DEPTH)
+                throw new IOException("Too many nested maps");
+            int size = readLength(buffer, 2);
+            Map<Object, Object> map = type == HASH_MAP ? new HashMap<Object, Object>(size * 4 / 3 + 1)
+                    : new LinkedHashMap<Object, Object>(size * 4 / 3 + 1);
+            for (int i = 0; i < size; i++)
+                map.put(readValue(buffer, depth + 1), readValue(buffer, depth + 1));
+            return map;
+        default:
+            throw new IOException("Unknown value type: " + type);
+        }
+    }
+
+    /**
+     * Writes the snapshot of the given config class, replacing the existing one. Since the snapshots are only a
+     * cache, the errors are ignored.
+     */
+    void write(Class<? extends Config> clazz, List<String> fingerprint, OwnerProperties properties) {
+        File file = file(clazz);
+        File temp = null;
+        try {
+            directory.mkdirs();
+            temp = File.createTempFile(clazz.getName(), ".tmp", directory);
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            try {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(fingerprint.size());
+                for (String item : fingerprint)
+                    writeString(output, item);
+                output.writeInt(properties.size());
+                for (Map.Entry<String, Object> entry : properties.entrySet()) {
+                    writeString(output, entry.getKey());
+                    writeValue(output, entry.getValue());
+                }
+            } finally {
+                output.close();
+            }
+            if (file.exists() && !file.delete() || !temp.renameTo(file))
+                ignore(/* another process may be replacing it */);
+        } catch (IOException e) {
+            ignore(/* the snapshot is only a cache */);
+        } finally {
+            if (temp != null)
+                temp.delete();
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static void writeValue(DataOutputStream output, Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(NULL);
+        } else if (value instanceof String) {
+            output.writeByte(STRING);
+            writeString(output, (String) value);
+        } else if (value instanceof String[]) {
+            String[] array = (String[]) value;
+            output.writeByte(STRING_ARRAY);
+            output.writeInt(array.length);
+            for (String item : array)
+                writeString(output, item);
+        } else if (value.getClass() == HashMap.class || value.getClass() == LinkedHashMap.class) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            output.writeByte(value.getClass() == HashMap.class ? HASH_MAP : LINKED_HASH_MAP);
+            output.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(output, entry.getKey());
+                writeValue(output, entry.getValue());
+            }
+        } else {
+            throw new IOException("Can't keep in a snapshot the values of type " + value.getClass().getName());
+        }
+    }
+
+}
@@ -8,12 +8,14 @@
 
 package org.aeonbits.owner;
 
-import static java.util.regex.Pattern.compile;
-import static org.aeonbits.owner.Util.fixBackslashForRegex;
+import static org.aeonbits.owner.Util.unsupported;
 
 import java.io.Serializable;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Substitutes variables within a string by values.
@@ -38,14 +40,23 @@ import java.util.regex.Pattern;
  * <pre>
  *      The quick brown fox jumped over the lazy dog.
  * </pre>
+ * <p/>
+ * Each source string is parsed once into a {@link Template} of literal and variable segments, so that the following
+ * replacements only concatenate the segments. Strings not containing any variable are returned as they are. The
+ * templates are shared with the instances created by {@link #withValues(OwnerProperties)}, and are all dropped when
+ * their number exceeds a limit, so that they don't pile up as the values change.
  *
  * @author Luigi R. Viggiano
  */
 class StrSubstitutor implements Serializable {
     private static final long serialVersionUID = -6232924188811333333L;
 
-    private final OwnerProperties values;
-    private static final Pattern PATTERN = compile("\\$\\{(.+?)\\}");
+    private static final String PREFIX = "${";
+    private static final char SUFFIX = '}';
+    private static final int MAX_TEMPLATES = 1024;
+
+    final OwnerProperties values;
+    private final ConcurrentMap<String, Template> templates;
 
     /**
      * Creates a new instance and initializes it. Uses defaults for variable prefix and suffix and the escaping
@@ -54,7 +65,22 @@ class StrSubstitutor implements Serializable {
      * @param values the variables' values, may be null
      */
     StrSubstitutor(OwnerProperties values) {
+        this(values, new ConcurrentHashMap<String, Template>());
+    }
+
+    private StrSubstitutor(OwnerProperties values, ConcurrentMap<String, Template> templates) {
         this.values = values;
+        this.templates = templates;
+    }
+
+    /**
+     * Creates a new instance for the given values, sharing the templates already compiled by this instance.
+     *
+     * @param values the variables' values
+     * @return the new instance
+     */
+    StrSubstitutor withValues(OwnerProperties values) {
+        return new StrSubstitutor(values, templates);
     }
 
     /**
@@ -65,27 +91,110 @@ class StrSubstitutor implements Serializable {
      * @return the result of the replace operation
      */
     String replace(String source) {
+        return replace(source, null);
+    }
+
+    /**
+     * Same as {@link #replace(String)}, also collecting the names of the variables read, including the ones referred
+     * by the values of other variables.
+     *
+     * @param source the string to replace in, null returns null
+     * @param variables the collection where the names of the variables read are added, may be null
+     * @return the result of the replace operation
+     */
+    String replace(String source, Collection<String> variables) {
         if (source == null)
             return null;
+        if (source.indexOf(PREFIX) < 0)
+            return source;
+        StringBuilder result = new StringBuilder(source.length() * 2);
+        template(source).appendTo(this, result, new ArrayList<String>(), variables);
+        return result.toString();
+    }
 
-        Matcher m = PATTERN.matcher(source);
-        StringBuffer sb = new StringBuffer();
-        while (m.find()) {
-            String var = m.group(1);
-            Object value = values.get(var);
-
-            if (value instanceof String) {
-                String text = (String) value;
-                String replacement = replace(text);
-                m.appendReplacement(sb, fixBackslashForRegex(replacement));
-            } else if (value != null) {
-                m.appendReplacement(sb, value.toString());
-            } else {
-                m.appendReplacement(sb, "");
+    private void appendValue(StringBuilder result, String variable, List<String> resolving,
+            Collection<String> variables) {
+        if (variables != null)
+            variables.add(variable);
+        Object value = values.get(variable);
+        if (value instanceof String) {
+            String text = (String) value;
+            if (text.indexOf(PREFIX) < 0) {
+                result.append(text);
+                return;
             }
+            if (resolving.contains(variable))
+                throw unsupported("Variable '%s' refers to itself: %s -> %s", variable, resolving, variable);
+            resolving.add(variable);
+            template(text).appendTo(this, result, resolving, variables);
+            resolving.remove(resolving.size() - 1);
+        } else if (value != null) {
+            result.append(value);
+        }
+    }
+
+    Template template(String source) {
+        Template template = templates.get(source);
+        if (template == null) {
+            template = new Template(source);
+            if (templates.size() >= MAX_TEMPLATES)
+                templates.clear(); // the templates of the values replaced by the reloads are dropped
+            templates.putIfAbsent(source, template);
+        }
+        return template;
+    }
+
+    /**
+     * A source string parsed into literal and variable segments: <tt>segments[i]</tt> is a literal when <tt>i</tt> is
+     * even, a variable name when <tt>i</tt> is odd.
+     */
+    static final class Template implements Serializable {
+        private static final long serialVersionUID = 3105306296405640342L;
+
+        private final String[] segments;
+
+        private Template(String source) {
+            List<String> result = new ArrayList<String>();
+            int literalStart = 0;
+            int index = source.indexOf(PREFIX);
+            while (index >= 0) {
+                int nameStart = index + PREFIX.length();
+                int end = nameStart < source.length() ? source.indexOf(SUFFIX, nameStart + 1) : -1;
+                if (end < 0)
+                    break;
+                if (containsLineTerminator(source, nameStart, end)) {
+                    index = source.indexOf(PREFIX, index + 1);
+                    continue;
+                }
+                result.add(source.substring(literalStart, index));
+                result.add(source.substring(nameStart, end));
+                literalStart = end + 1;
+                index = source.indexOf(PREFIX, literalStart);
+            }
+            result.add(source.substring(literalStart));
+            segments = result.toArray(new String[result.size()]);
+        }
+
+        private void appendTo(StrSubstitutor substitutor, StringBuilder result, List<String> resolving,
+                Collection<String> variables) {
+            for (int i = 0; i < segments.length; i++)
+                if (i % 2 == 0)
+                    result.append(segments[i]);
+                else
+                    substitutor.appendValue(result, segments[i], resolving, variables);
+        }
+    }
+
+    /**
+     * Variable names don't span multiple lines.
+     */
+    private static boolean containsLineTerminator(String source, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029')
+                return true;
         }
-        m.appendTail(sb);
-        return sb.toString();
+        return false;
     }
 
 }
@@ -19,13 +19,13 @@ import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
-import org.aeonbits.owner.Config.DisableFeature;
 import org.aeonbits.owner.Config.DisableableFeature;
 
 /**
@@ -42,6 +42,8 @@ abstract class Util {
     interface SystemProvider {
         Object getProperty(String key);
 
+        Object getenv(String key);
+
         OwnerProperties getenv();
 
         OwnerProperties getProperties();
@@ -58,6 +60,10 @@ abstract class Util {
             return System.getProperty(key);
         }
 
+        public String getenv(String key) {
+            return System.getenv(key);
+        }
+
         public OwnerProperties getenv() {
             return new OwnerProperties(System.getenv());
         }
@@ -104,13 +110,7 @@ abstract class Util {
     }
 
     static boolean isFeatureDisabled(Method method, DisableableFeature feature) {
-        Class<DisableFeature> annotation = DisableFeature.class;
-        return isFeatureDisabled(feature, getAnnotationCheckInterfaces(method.getDeclaringClass(), annotation))
-                || isFeatureDisabled(feature, getAnnotationCheckInterfaces(method, annotation));
-    }
-
-    private static boolean isFeatureDisabled(DisableableFeature feature, DisableFeature annotation) {
-        return annotation != null && asList(annotation.value()).contains(feature);
+        return ConfigClassMetadata.of(method.getDeclaringClass()).method(method).isFeatureDisabled(feature);
     }
 
     static UnsupportedOperationException unsupported(Throwable cause, String msg, Object... args) {
@@ -189,21 +189,27 @@ abstract class Util {
 
         for (Class<?> interfazz : interfaces) {
             if (Config.class.isAssignableFrom(interfazz)) {
-                try {
-                    Method interfaceMethod = interfazz.getMethod(method.getName(), method.getParameterTypes());
-                    annotation = getAnnotationCheckInterfaces(interfaceMethod, annotationClass);
+                Method interfaceMethod = findMethod(interfazz, method.getName(), method.getParameterTypes());
+                if (interfaceMethod == null)
+                    continue;
 
-                    if (annotation != null)
-                        return annotation;
-                } catch (Exception e) {
+                annotation = getAnnotationCheckInterfaces(interfaceMethod, annotationClass);
 
-                }
+                if (annotation != null)
+                    return annotation;
             }
         }
 
         return null;
     }
 
+    private static Method findMethod(Class<?> clazz, String name, Class<?>[] parameterTypes) {
+        for (Method method : clazz.getMethods())
+            if (method.getName().equals(name) && Arrays.equals(method.getParameterTypes(), parameterTypes))
+                return method;
+        return null;
+    }
+
     public static <T extends Annotation> T getAnnotationCheckInterfaces(Class<?> clazz, Class<T> annotationClass) {
         T annotation = clazz.getAnnotation(annotationClass);
 
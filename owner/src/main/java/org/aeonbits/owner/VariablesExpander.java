@@ -16,6 +16,8 @@ import java.io.Serializable;
  * This class is used to expand variables in the format <tt>${variable}</tt>$, using values from
  * {@link System#getenv()}, {@link System#getProperties()} and the <tt>OwnerProperties</tt> object specified in the
  * constructor (in inverse order; first match is accepted).
+ * <p/>
+ * The variables are looked up when they are expanded, without copying the system properties and the environment.
  *
  * @author Luigi R. Viggiano
  */
@@ -25,11 +27,7 @@ class VariablesExpander implements Serializable {
     private final StrSubstitutor substitutor;
 
     VariablesExpander(OwnerProperties props) {
-        OwnerProperties variables = new OwnerProperties();
-        variables.putAll(Util.system().getenv());
-        variables.putAll(Util.system().getProperties());
-        variables.putAll(props);
-        substitutor = new StrSubstitutor(variables);
+        substitutor = new StrSubstitutor(new Variables(props));
     }
 
     String expand(String path) {
@@ -37,4 +35,28 @@ class VariablesExpander implements Serializable {
         return substitutor.replace(expanded);
     }
 
+    /**
+     * The variables available for the expansion: only {@link #get(String)} is meant to be used, the other methods see
+     * an empty map.
+     */
+    private static final class Variables extends OwnerProperties {
+        private static final long serialVersionUID = 3985718468733470592L;
+
+        private final OwnerProperties props;
+
+        Variables(OwnerProperties props) {
+            this.props = props;
+        }
+
+        @Override
+        public Object get(String key) {
+            Object value = props.get(key);
+            if (value == null)
+                value = Util.system().getProperty(key);
+            if (value == null)
+                value = Util.system().getenv(key);
+            return value;
+        }
+    }
+
 }
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.aeonbits.owner.Util.ignore;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * {@link FileWatcher} using a {@link WatchService}: each directory is registered once and the change notifications are
+ * dispatched to every listener interested in a file of that directory.
+ * <p/>
+ * The listeners are weakly referenced, so that the configs can be garbage collected. The watching thread is started
+ * with the first listener, and closes the {@link WatchService} and stops when no listeners remain.
+ * <p/>
+ * This class requires Java 7, so it is only loaded by {@link FileWatcher#newInstance()} once the {@link WatchService}
+ * is found to be available.
+ *
+ * @author Luigi R. Viggiano
+ */
+class WatchServiceFileWatcher extends FileWatcher implements Runnable {
+    private static final long PURGE_INTERVAL = 60; // seconds
+
+    private final Map<Path, WatchKey> directories = new HashMap<Path, WatchKey>();
+    private final Map<File, List<WeakReference<Listener>>> listeners = new HashMap<File, List<WeakReference<Listener>>>();
+    private WatchService service;
+
+    @Override
+    synchronized boolean watch(File file, Listener listener) {
+        File target = file.getAbsoluteFile();
+        File parent = target.getParentFile();
+        if (parent == null || !parent.isDirectory())
+            return false;
+        try {
+            Path directory = parent.toPath();
+            if (!directories.containsKey(directory))
+                directories.put(directory, directory.register(service(), ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE));
+        } catch (IOException e) {
+            return false;
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+        List<WeakReference<Listener>> fileListeners = listeners.get(target);
+        if (fileListeners == null)
+            listeners.put(target, fileListeners = new ArrayList<WeakReference<Listener>>());
+        for (Iterator<WeakReference<Listener>> iterator = fileListeners.iterator(); iterator.hasNext(); )
+            if (iterator.next().get() == null)
+                iterator.remove();
+        fileListeners.add(new WeakReference<Listener>(listener));
+        return true;
+    }
+
+    @Override
+    synchronized boolean isWatched(File file) {
+        File target = file.getAbsoluteFile();
+        File parent = target.getParentFile();
+        return parent != null && listeners.containsKey(target) && directories.containsKey(parent.toPath());
+    }
+
+    private WatchService service() throws IOException {
+        if (service == null) {
+            service = FileSystems.getDefault().newWatchService();
+            Thread thread = new Thread(this, "owner-file-watcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return service;
+    }
+
+    public void run() {
+        WatchService service;
+        synchronized (this) {
+            service = this.service;
+        }
+        while (true) {
+            WatchKey key;
+            try {
+                key = service.poll(PURGE_INTERVAL, SECONDS);
+            } catch (InterruptedException e) {
+                return;
+            } catch (ClosedWatchServiceException e) {
+                return;
+            }
+            if (key == null) {
+                if (purge())
+                    return;
+                continue;
+            }
+            Path directory = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW)
+                    notifyDirectory(directory);
+                else
+                    notifyFile(directory.resolve((Path) event.context()).toFile());
+            }
+            if (!key.reset())
+                cancel(directory);
+        }
+    }
+
+    /**
+     * Removes the listeners that have been garbage collected, and stops watching the directories no longer needed.
+     *
+     * @return <tt>true</tt> if no listeners remain, so the {@link WatchService} has been closed.
+     */
+    synchronized boolean purge() {
+        for (Iterator<List<WeakReference<Listener>>> files = listeners.values().iterator(); files.hasNext(); ) {
+            List<WeakReference<Listener>> fileListeners = files.next();
+            for (Iterator<WeakReference<Listener>> iterator = fileListeners.iterator(); iterator.hasNext(); )
+                if (iterator.next().get() == null)
+                    iterator.remove();
+            if (fileListeners.isEmpty())
+                files.remove();
+        }
+        for (Iterator<Entry<Path, WatchKey>> iterator = directories.entrySet().iterator(); iterator.hasNext(); ) {
+            Entry<Path, WatchKey> entry = iterator.next();
+            if (!hasListeners(entry.getKey().toFile())) {
+                entry.getValue().cancel();
+                iterator.remove();
+            }
+        }
+        if (!listeners.isEmpty())
+            return false;
+        try {
+            service.close();
+        } catch (IOException e) {
+            ignore(/* the thread stops anyway */);
+        }
+        service = null;
+        return true;
+    }
+
+    private boolean hasListeners(File directory) {
+        for (File file : listeners.keySet())
+            if (directory.equals(file.getParentFile()))
+                return true;
+        return false;
+    }
+
+    private void notifyDirectory(Path directory) {
+        File dir = directory.toFile();
+        for (File file : files())
+            if (dir.equals(file.getParentFile()))
+                notifyFile(file);
+    }
+
+    private synchronized List<File> files() {
+        return new ArrayList<File>(listeners.keySet());
+    }
+
+    private void notifyFile(File file) {
+        for (Listener listener : listeners(file))
+            listener.fileChanged(file);
+    }
+
+    private synchronized List<Listener> listeners(File file) {
+        List<Listener> result = new ArrayList<Listener>();
+        List<WeakReference<Listener>> fileListeners = listeners.get(file);
+        if (fileListeners == null)
+            return result;
+        for (Iterator<WeakReference<Listener>> iterator = fileListeners.iterator(); iterator.hasNext(); ) {
+            Listener listener = iterator.next().get();
+            if (listener == null)
+                iterator.remove(); // the config has been garbage collected
+            else
+                result.add(listener);
+        }
+        if (fileListeners.isEmpty())
+            listeners.remove(file);
+        return result;
+    }
+
+    /**
+     * The directory is no longer accessible: the listeners are notified of the change and will then fall back to
+     * polling their files.
+     */
+    private void cancel(Path directory) {
+        synchronized (this) {
+            directories.remove(directory);
+        }
+        notifyDirectory(directory);
+        synchronized (this) {
+            File dir = directory.toFile();
+            for (Iterator<Entry<File, List<WeakReference<Listener>>>> iterator = listeners.entrySet().iterator();
+                 iterator.hasNext(); )
+                if (dir.equals(iterator.next().getKey().getParentFile()))
+                    iterator.remove();
+        }
+    }
+
+}
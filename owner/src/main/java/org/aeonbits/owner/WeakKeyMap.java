@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A concurrent map holding its keys weakly and comparing them by identity, so that caching something by
+ * {@link Class} or by {@link ClassLoader} doesn't prevent the class loader from being garbage collected. The lookups
+ * don't block, as the ones of a {@link ConcurrentHashMap}.
+ * <p/>
+ * The values are held strongly: a value referring to its key, directly or not, has to be wrapped in a
+ * {@link Reference} and kept alive by its users.
+ *
+ * @author Luigi R. Viggiano
+ */
+final class WeakKeyMap<K, V> {
+    private final ConcurrentMap<Key, V> map = new ConcurrentHashMap<Key, V>();
+    private final ReferenceQueue<K> queue = new ReferenceQueue<K>();
+
+    private interface Key {
+        Object get();
+    }
+
+    private static final class Lookup implements Key {
+        private final Object key;
+
+        Lookup(Object key) {
+            this.key = key;
+        }
+
+        public Object get() {
+            return key;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(key);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key && ((Key) obj).get() == key;
+        }
+    }
+
+    private static final class WeakKey<K> extends WeakReference<K> implements Key {
+        private final int hashCode;
+
+        WeakKey(K key, ReferenceQueue<K> queue) {
+            super(key, queue);
+            hashCode = System.identityHashCode(key);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this)
+                return true;
+            Object key = get();
+            return key != null && obj instanceof Key && ((Key) obj).get() == key;
+        }
+    }
+
+    V get(K key) {
+        return map.get(new Lookup(key));
+    }
+
+    V putIfAbsent(K key, V value) {
+        purge();
+        return map.putIfAbsent(new WeakKey<K>(key, queue), value);
+    }
+
+    boolean replace(K key, V oldValue, V newValue) {
+        purge();
+        return map.replace(new Lookup(key), oldValue, newValue);
+    }
+
+    int size() {
+        purge();
+        return map.size();
+    }
+
+    /**
+     * Removes the entries whose keys have been garbage collected.
+     */
+    private void purge() {
+        for (Reference<? extends K> key; (key = queue.poll()) != null; )
+            map.remove(key);
+    }
+
+}
@@ -0,0 +1,426 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner.loaders;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.aeonbits.owner.OwnerProperties;
+
+/**
+ * {@link OwnerProperties.Index} reading the properties from a memory-mapped index file, so that they are not kept on
+ * the heap.
+ * <p/>
+ * The index file starts with a header, recording the length, the modification time and the canonical path of the
+ * properties file it was built from, followed by the records of the properties, in the order they are read, and by an open-addressed hash
+ * table of the offsets of the records. Every record holds the hash code of the key, then the key and the value encoded
+ * in UTF-8, each preceded by its length. When a key is specified more than once, the table points to its last record.
+ *
+ * @author Luigi R. Viggiano
+ * @since 1.0.11
+ */
+final class MappedPropertiesIndex implements OwnerProperties.Index {
+    private static final long serialVersionUID = 6028545417839542512L;
+
+    private static final int MAGIC = 0x4f574e49; // "OWNI"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 44; // followed by the path of the properties file
+    private static final long CHUNK_SIZE = 1L << 30;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File file;
+    private transient MappedByteBuffer[] chunks;
+    private transient long sourceLength;
+    private transient long sourceLastModified;
+    private transient String sourcePath;
+    private transient int tableSize;
+    private transient long tableOffset;
+
+    private MappedPropertiesIndex(File file) throws IOException {
+        this.file = file;
+        map();
+    }
+
+    /**
+     * Maps the given index file.
+     */
+    static MappedPropertiesIndex open(File file) throws IOException {
+        return new MappedPropertiesIndex(file);
+    }
+
+    private void map() throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            long length = channel.size();
+            MappedByteBuffer[] result = new MappedByteBuffer[(int) ((length + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+            for (int i = 0; i < result.length; i++) {
+                long position = i * CHUNK_SIZE;
+                result[i] = channel.map(READ_ONLY, position, Math.min(CHUNK_SIZE, length - position));
+            }
+            chunks = result; // the mappings stay valid after the channel is closed
+        } finally {
+            raf.close();
+        }
+        if (file.length() < HEADER_SIZE || readInt(0) != MAGIC || readInt(4) != VERSION)
+            throw new IOException("Invalid index file: " + file);
+        sourceLength = readLong(8);
+        sourceLastModified = readLong(16);
+        tableSize = readInt(28);
+        tableOffset = readLong(32);
+        sourcePath = readString(HEADER_SIZE, readInt(40));
+    }
+
+    /**
+     * @return the file mapped by this index.
+     */
+    File file() {
+        return file;
+    }
+
+    /**
+     * @param path  the canonical path of the given properties file.
+     * @return <tt>true</tt> if this index has been built from the current content of the given properties file.
+     */
+    boolean isCurrent(File source, String path) {
+        return sourceLength == source.length() && sourceLastModified == source.lastModified()
+                && sourcePath.equals(path);
+    }
+
+    /**
+     * @param path  the canonical path of the given properties file.
+     * @return <tt>true</tt> if the given index file exists and has been built from the current content of the given
+     * properties file.
+     */
+    static boolean isCurrent(File file, File source, String path) throws IOException {
+        if (file.length() < HEADER_SIZE)
+            return false;
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            if (raf.readInt() != MAGIC || raf.readInt() != VERSION || raf.readLong() != source.length()
+                    || raf.readLong() != source.lastModified())
+                return false;
+            raf.seek(40);
+            byte[] expected = path.getBytes(UTF_8);
+            if (raf.readInt() != expected.length)
+                return false;
+            byte[] bytes = new byte[expected.length];
+            raf.readFully(bytes);
+            return Arrays.equals(bytes, expected);
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Builds the index file of the given properties file, replacing the existing one.
+     * <p/>
+     * The properties are written into the records as they are parsed, then the records are read back to fill the
+     * hash table directly in the file, so that neither the properties nor the table are kept on the heap.
+     * <p/>
+     * The index is built into a temporary file, which then replaces the index file. If the index file can't be
+     * replaced, i.e. because another process has mapped it on a file system not allowing that, the temporary file is
+     * kept and returned, and it's up to the caller to delete it.
+     *
+     * @param path  the canonical path of the given properties file.
+     * @return the given index file, or the temporary file holding the index if it couldn't be replaced.
+     */
+    static File build(File source, String path, File file) throws IOException {
+        long length = source.length();
+        long lastModified = source.lastModified(); // read before the content, so later changes are detected
+        byte[] pathBytes = path.getBytes(UTF_8);
+
+        File temp = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+        boolean kept = false;
+        try {
+            RecordWriter records = new RecordWriter(temp, HEADER_SIZE + pathBytes.length);
+            InputStream input = new FileInputStream(source);
+            try {
+                PropertiesParser.parse(input, records);
+            } finally {
+                try {
+                    input.close();
+                } finally {
+                    records.close();
+                }
+            }
+
+            RandomAccessFile raf = new RandomAccessFile(temp, "rw");
+            try {
+                FileChannel channel = raf.getChannel();
+                TableWriter table = new TableWriter(channel, records.offset, tableSize(records.count));
+                int entries = table.fill(temp, records.start);
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + pathBytes.length);
+                header.putInt(MAGIC).putInt(VERSION).putLong(length).putLong(lastModified);
+                header.putInt(entries).putInt(table.size).putLong(records.offset);
+                header.putInt(pathBytes.length).put(pathBytes);
+                header.flip();
+                write(channel, header, 0);
+            } finally {
+                raf.close();
+            }
+
+            if (replace(temp, file))
+                return file;
+            kept = true;
+            return temp;
+        } finally {
+            if (!kept)
+                temp.delete();
+        }
+    }
+
+    /**
+     * Replaces the index file with the given temporary file.
+     *
+     * @return <tt>true</tt> if replaced, <tt>false</tt> if the index file is still mapped by another process.
+     */
+    static boolean replace(File temp, File file) {
+        if (temp.renameTo(file))
+            return true; // atomically replaced, where the file system allows that
+        return file.delete() && temp.renameTo(file);
+    }
+
+    /**
+     * Writes the records of the properties after the room left for the header.
+     */
+    private static final class RecordWriter implements PropertiesParser.Handler {
+        private final DataOutputStream output;
+        private final long start;
+        private long offset;
+        private int count;
+
+        RecordWriter(File file, int start) throws IOException {
+            this.start = offset = start;
+            output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            output.write(new byte[start]);
+        }
+
+        public void property(String key, String value) throws IOException {
+            byte[] keyBytes = key.getBytes(UTF_8);
+            byte[] valueBytes = value.getBytes(UTF_8);
+            output.writeInt(key.hashCode());
+            output.writeInt(keyBytes.length);
+            output.write(keyBytes);
+            output.writeInt(valueBytes.length);
+            output.write(valueBytes);
+            offset += 12 + keyBytes.length + valueBytes.length;
+            count++;
+        }
+
+        void close() throws IOException {
+            output.close();
+        }
+    }
+
+    /**
+     * Fills the hash table following the records, reading the records back sequentially. When the same key is found
+     * more than once, the slot is pointed to the last record, as the last value prevails.
+     */
+    private static final class TableWriter {
+        private final FileChannel channel;
+        private final long offset;
+        private final int size;
+        private final ByteBuffer slot = ByteBuffer.allocate(8);
+
+        TableWriter(FileChannel channel, long offset, int size) throws IOException {
+            this.channel = channel;
+            this.offset = offset;
+            this.size = size;
+            write(channel, ByteBuffer.allocate(1), offset + size * 8L - 1); // the extended file is filled with zeros
+        }
+
+        int fill(File file, long start) throws IOException {
+            int entries = 0;
+            DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                skip(input, (int) start);
+                for (long record = start; record < offset; ) {
+                    int hash = input.readInt();
+                    byte[] key = new byte[input.readInt()];
+                    input.readFully(key);
+                    int valueLength = input.readInt();
+                    skip(input, valueLength);
+                    if (put(hash, key, record))
+                        entries++;
+                    record += 12 + key.length + valueLength;
+                }
+            } finally {
+                input.close();
+            }
+            return entries;
+        }
+
+        /**
+         * @return <tt>true</tt> if the key has been added, <tt>false</tt> if it was already in the table.
+         */
+        private boolean put(int hash, byte[] key, long record) throws IOException {
+            int mask = size - 1;
+            for (int index = spread(hash) & mask; ; index = (index + 1) & mask) {
+                long position = offset + index * 8L;
+                long existing = readLong(position);
+                if (existing == 0 || isKey(existing, hash, key)) {
+                    slot.clear();
+                    slot.putLong(record).flip();
+                    write(channel, slot, position);
+                    return existing == 0;
+                }
+            }
+        }
+
+        private boolean isKey(long record, int hash, byte[] key) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(8);
+            read(channel, header, record);
+            if (header.getInt(0) != hash || header.getInt(4) != key.length)
+                return false;
+            ByteBuffer bytes = ByteBuffer.allocate(key.length);
+            read(channel, bytes, record + 8);
+            return Arrays.equals(bytes.array(), key);
+        }
+
+        private long readLong(long position) throws IOException {
+            slot.clear();
+            read(channel, slot, position);
+            return slot.getLong(0);
+        }
+    }
+
+    private static void skip(DataInputStream input, int length) throws IOException {
+        if (input.skipBytes(length) != length)
+            throw new EOFException();
+    }
+
+    private static void read(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining())
+            if (channel.read(buffer, position + buffer.position()) < 0)
+                throw new EOFException();
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer, position + buffer.position());
+    }
+
+    private static int tableSize(int entries) {
+        int size = 2;
+        while (size < entries * 2)
+            size <<= 1;
+        return size;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    public String get(String key) {
+        byte[] keyBytes = key.getBytes(UTF_8);
+        int hash = key.hashCode();
+        int mask = tableSize - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            long offset = readLong(tableOffset + slot * 8L);
+            if (offset == 0)
+                return null;
+            if (readInt(offset) == hash && readInt(offset + 4) == keyBytes.length && matches(offset + 8, keyBytes)) {
+                long valueOffset = offset + 8 + keyBytes.length;
+                return readString(valueOffset + 4, readInt(valueOffset));
+            }
+        }
+    }
+
+    public Iterable<String> keys() {
+        return new Iterable<String>() {
+            public Iterator<String> iterator() {
+                return new Iterator<String>() {
+                    private int slot = skipEmpty(0);
+
+                    private int skipEmpty(int from) {
+                        while (from < tableSize && readLong(tableOffset + from * 8L) == 0)
+                            from++;
+                        return from;
+                    }
+
+                    public boolean hasNext() {
+                        return slot < tableSize;
+                    }
+
+                    public String next() {
+                        if (!hasNext())
+                            throw new NoSuchElementException();
+                        long offset = readLong(tableOffset + slot * 8L);
+                        slot = skipEmpty(slot + 1);
+                        return readString(offset + 8, readInt(offset + 4));
+                    }
+
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+    }
+
+    private boolean matches(long offset, byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++)
+            if (readByte(offset + i) != bytes[i])
+                return false;
+        return true;
+    }
+
+    private String readString(long offset, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++)
+            bytes[i] = readByte(offset + i);
+        return new String(bytes, UTF_8);
+    }
+
+    private byte readByte(long offset) {
+        return chunks[(int) (offset / CHUNK_SIZE)].get((int) (offset % CHUNK_SIZE));
+    }
+
+    private int readInt(long offset) {
+        MappedByteBuffer chunk = chunks[(int) (offset / CHUNK_SIZE)];
+        int index = (int) (offset % CHUNK_SIZE);
+        if (index + 4 <= chunk.limit())
+            return chunk.getInt(index);
+        int result = 0;
+        for (int i = 0; i < 4; i++)
+            result = result << 8 | readByte(offset + i) & 0xff;
+        return result;
+    }
+
+    private long readLong(long offset) {
+        return (long) readInt(offset) << 32 | readInt(offset + 4) & 0xffffffffL;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        map();
+    }
+
+}
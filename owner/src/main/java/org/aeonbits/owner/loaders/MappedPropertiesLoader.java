@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner.loaders;
+
+import static java.net.URLDecoder.decode;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectStreamException;
+import java.io.UnsupportedEncodingException;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.aeonbits.owner.OwnerProperties;
+
+/**
+ * Loader for the '.properties' files too large to be kept on the heap: the properties are written once into an index
+ * file, which is then memory-mapped and looked up only when a property is requested. The index file is reused as
+ * long as the properties file doesn't change, so reloading an unchanged file only requires to check its modification
+ * time, and reloading a changed file rebuilds and maps again its index.
+ * <p/>
+ * This loader is not registered by default; once registered, it handles the '.properties' files on the filesystem
+ * having at least the given size, while the other ones are still handled by the {@link PropertiesLoader}.
+ * <p/>
+ * The index files are named after the digest of the canonical path of the properties file, and record that path, so
+ * that an index file is never taken for the one of a different properties file. When an index file can't be replaced
+ * because another process keeps it mapped, the freshly built index is served from its temporary file, deleted on exit,
+ * and replacing the index file with it is tried again on the next reload.
+ *
+ * @author Luigi R. Viggiano
+ * @since 1.0.11
+ * @see OwnerProperties.Index
+ */
+public class MappedPropertiesLoader implements URLLoader {
+    private static final long serialVersionUID = -2209419656427418457L;
+
+    private static final String EXTENSION = ".properties";
+
+    private final File directory;
+    private final long minimumSize;
+    private final transient ConcurrentMap<File, MappedPropertiesIndex> indexes =
+            new ConcurrentHashMap<File, MappedPropertiesIndex>();
+
+    /**
+     * Creates a loader handling all the '.properties' files on the filesystem, keeping the index files in the
+     * <tt>.owner/indexes</tt> directory of the home of the user.
+     */
+    public MappedPropertiesLoader() {
+        this(new File(new File(System.getProperty("user.home"), ".owner"), "indexes"), 0);
+    }
+
+    /**
+     * @param directory     the directory where to keep the index files.
+     * @param minimumSize   the minimum size in bytes of the '.properties' files handled by this loader.
+     */
+    public MappedPropertiesLoader(File directory, long minimumSize) {
+        if (directory == null)
+            throw new IllegalArgumentException("directory can't be null");
+        this.directory = directory;
+        this.minimumSize = minimumSize;
+    }
+
+    public boolean accept(URL url) {
+        File file = fileFromURL(url);
+        return file != null && file.getName().endsWith(EXTENSION) && file.length() >= minimumSize;
+    }
+
+    public void load(OwnerProperties result, URL url) throws IOException {
+        File source = fileFromURL(url);
+        if (source == null || !source.isFile())
+            throw new FileNotFoundException(url.toString());
+        result.putIndex(index(source));
+    }
+
+    private MappedPropertiesIndex index(File source) throws IOException {
+        String path = source.getCanonicalPath();
+        File file = indexFileFor(source, path);
+        MappedPropertiesIndex index = indexes.get(file);
+        if (index != null && index.isCurrent(source, path) && index.file().equals(file))
+            return index;
+
+        synchronized (this) {
+            index = indexes.get(file);
+            if (index != null && index.isCurrent(source, path)) {
+                if (index.file().equals(file))
+                    return index;
+                if (!MappedPropertiesIndex.replace(index.file(), file))
+                    return index; // the index file is still mapped by another process
+                index = MappedPropertiesIndex.open(file);
+                indexes.put(file, index);
+                return index;
+            }
+            File built = file;
+            if (!MappedPropertiesIndex.isCurrent(file, source, path)) {
+                if (!directory.isDirectory() && !directory.mkdirs())
+                    throw new IOException("Can't create the directory for the index files: " + directory);
+                built = MappedPropertiesIndex.build(source, path, file);
+            }
+            if (!built.equals(file))
+                built.deleteOnExit(); // the index file is mapped by another process: replaced on the next reload
+            index = MappedPropertiesIndex.open(built);
+            indexes.put(file, index);
+            return index;
+        }
+    }
+
+    private File indexFileFor(File source, String path) {
+        return new File(directory, source.getName() + "-" + digest(path) + ".idx");
+    }
+
+    private static String digest(String path) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(path.getBytes("UTF-8"));
+            StringBuilder result = new StringBuilder(digest.length * 2);
+            for (byte b : digest)
+                result.append(Character.forDigit(b >> 4 & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            return result.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new UnsupportedOperationException(e); // every JRE provides SHA-1
+        } catch (UnsupportedEncodingException e) {
+            throw new UnsupportedOperationException(e); // every JRE provides UTF-8
+        }
+    }
+
+    private static File fileFromURL(URL url) {
+        if (!"file".equalsIgnoreCase(url.getProtocol()))
+            return null;
+        try {
+            return new File(decode(url.getPath(), "utf-8"));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Loads the properties from the given stream as the {@link PropertiesLoader} does, when the URL is not available.
+     */
+    public void load(OwnerProperties result, InputStream input) throws IOException {
+        new PropertiesLoader().load(result, input);
+    }
+
+    /**
+     * @return <tt>null</tt>, since the '.properties' files are already specified by the {@link PropertiesLoader}.
+     */
+    public String defaultSpecFor(String urlPrefix) {
+        return null;
+    }
+
+    private Object readResolve() throws ObjectStreamException {
+        return new MappedPropertiesLoader(directory, minimumSize);
+    }
+
+}
@@ -11,7 +11,6 @@ package org.aeonbits.owner.loaders;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
-import java.util.Properties;
 
 import org.aeonbits.owner.OwnerProperties;
 
@@ -30,12 +29,7 @@ public class PropertiesLoader implements Loader {
     }
 
     public void load(OwnerProperties result, InputStream input) throws IOException {
-        Properties props = new Properties();
-        props.load(input);
-
-        for (String key : props.stringPropertyNames()) {
-            result.put(key, props.get(key));
-        }
+        PropertiesParser.parse(input, result);
     }
 
     public String defaultSpecFor(String urlPrefix) {
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner.loaders;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import org.aeonbits.owner.OwnerProperties;
+
+/**
+ * Parser of the '.properties' format, putting every property directly into the resulting {@link OwnerProperties} as
+ * soon as it is read, instead of collecting them into a {@link Properties} object first.
+ * <p/>
+ * It follows the same rules of {@link Properties#load(InputStream)}: the input is read as ISO 8859-1, the lines ending
+ * with an odd number of backslashes continue on the next line, the lines starting with '#' or '!' are comments, and the
+ * key is separated from the value by '=', ':' or white space. If the same key is specified more than once, the last
+ * value prevails.
+ *
+ * @author Luigi R. Viggiano
+ * @since 1.0.11
+ */
+final class PropertiesParser {
+
+    /**
+     * Receives the properties as soon as they are read.
+     */
+    interface Handler {
+        void property(String key, String value) throws IOException;
+    }
+
+    private final InputStream input;
+    private final byte[] buffer = new byte[8192];
+    private int position;
+    private int limit;
+    private char[] line = new char[256];
+    private char[] converted = new char[256];
+
+    private PropertiesParser(InputStream input) {
+        this.input = input;
+    }
+
+    /**
+     * Reads the properties from the given input into the given result.
+     */
+    static void parse(InputStream input, final OwnerProperties result) throws IOException {
+        parse(input, new Handler() {
+            public void property(String key, String value) {
+                result.put(key, value);
+            }
+        });
+    }
+
+    /**
+     * Reads the properties from the given input, passing them to the given handler in the order they are read.
+     */
+    static void parse(InputStream input, Handler handler) throws IOException {
+        new PropertiesParser(input).parse(handler);
+    }
+
+    private void parse(Handler handler) throws IOException {
+        int length;
+        while ((length = readLine()) >= 0) {
+            int keyLength = 0;
+            int valueStart = length;
+            boolean hasSeparator = false;
+            boolean precedingBackslash = false;
+            while (keyLength < length) {
+                char c = line[keyLength];
+                if ((c == '=' || c == ':') && !precedingBackslash) {
+                    valueStart = keyLength + 1;
+                    hasSeparator = true;
+                    break;
+                } else if (isWhitespace(c) && !precedingBackslash) {
+                    valueStart = keyLength + 1;
+                    break;
+                }
+                precedingBackslash = c == '\\' && !precedingBackslash;
+                keyLength++;
+            }
+            while (valueStart < length) {
+                char c = line[valueStart];
+                if (!isWhitespace(c)) {
+                    if (hasSeparator || c != '=' && c != ':')
+                        break;
+                    hasSeparator = true;
+                }
+                valueStart++;
+            }
+            handler.property(convert(0, keyLength), convert(valueStart, length - valueStart));
+        }
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+
+    private boolean fill() throws IOException {
+        limit = input.read(buffer);
+        position = 0;
+        return limit > 0;
+    }
+
+    /**
+     * Reads the next logical line, skipping the comments and the blank lines, and joining the continued lines.
+     *
+     * @return the length of the line, or <tt>-1</tt> at the end of the input.
+     */
+    private int readLine() throws IOException {
+        int length = 0;
+        boolean skipWhitespace = true;
+        boolean isCommentLine = false;
+        boolean isNewLine = true;
+        boolean appendedLineBegin = false;
+        boolean precedingBackslash = false;
+        boolean skipLF = false;
+
+        while (true) {
+            if (position >= limit && !fill()) {
+                if (length == 0 || isCommentLine)
+                    return -1;
+                return precedingBackslash ? length - 1 : length;
+            }
+            char c = (char) (buffer[position++] & 0xff);
+            if (skipLF) {
+                skipLF = false;
+                if (c == '\n')
+                    continue;
+            }
+            if (skipWhitespace) {
+                if (isWhitespace(c) || !appendedLineBegin && (c == '\r' || c == '\n'))
+                    continue;
+                skipWhitespace = false;
+                appendedLineBegin = false;
+            }
+            if (isNewLine) {
+                isNewLine = false;
+                if (c == '#' || c == '!') {
+                    isCommentLine = true;
+                    continue;
+                }
+            }
+
+            if (c != '\n' && c != '\r') {
+                if (length == line.length)
+                    line = grow(line);
+                line[length++] = c;
+                precedingBackslash = c == '\\' && !precedingBackslash;
+                continue;
+            }
+
+            if (isCommentLine || length == 0) {
+                isCommentLine = false;
+                isNewLine = true;
+                skipWhitespace = true;
+                length = 0;
+                continue;
+            }
+            if (position >= limit && !fill())
+                return length;
+            if (!precedingBackslash)
+                return length;
+            length--;
+            skipWhitespace = true;
+            appendedLineBegin = true;
+            precedingBackslash = false;
+            skipLF = c == '\r';
+        }
+    }
+
+    private static char[] grow(char[] array) {
+        char[] result = new char[array.length * 2];
+        System.arraycopy(array, 0, result, 0, array.length);
+        return result;
+    }
+
+    /**
+     * Converts the escape sequences found in the given portion of the line.
+     */
+    private String convert(int offset, int length) {
+        if (converted.length < length)
+            converted = new char[Math.max(length, converted.length * 2)];
+        int end = offset + length;
+        int out = 0;
+        while (offset < end) {
+            char c = line[offset++];
+            if (c != '\\') {
+                converted[out++] = c;
+                continue;
+            }
+            if (offset == end)
+                break; // a trailing backslash at the end of the input
+            c = line[offset++];
+            if (c == 'u') {
+                if (end - offset < 4)
+                    throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(line[offset++], 16);
+                    if (digit < 0)
+                        throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                    value = (value << 4) + digit;
+                }
+                converted[out++] = (char) value;
+            } else if (c == 't') {
+                converted[out++] = '\t';
+            } else if (c == 'r') {
+                converted[out++] = '\r';
+            } else if (c == 'n') {
+                converted[out++] = '\n';
+            } else if (c == 'f') {
+                converted[out++] = '\f';
+            } else {
+                converted[out++] = c;
+            }
+        }
+        return new String(converted, 0, out);
+    }
+
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner.loaders;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.aeonbits.owner.OwnerProperties;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+/**
+ * A {@link YAMLLoader} reading the YAML events one by one, and putting every value into the resulting
+ * {@link OwnerProperties} as soon as it is read, instead of building the object graph of the whole document first:
+ * besides the resulting properties, the memory needed grows with the nesting depth of the document rather than with
+ * its size.
+ * <p/>
+ * The result is the same of the {@link YAMLLoader}, with these differences: the keys are always converted to strings,
+ * the dotted keys of the nested mappings are always split into nested maps, as {@link OwnerProperties#putAll(Map)}
+ * does when it merges them into existing ones, and the merge key (<tt>&lt;&lt;</tt>) is not supported in the mappings
+ * that are not anchored. The sequences, and
+ * the mappings having an anchor or a tag, are built as a whole, since they are values themselves or may be referred
+ * by an alias.
+ * <p/>
+ * This loader is not registered by default.
+ *
+ * @author Luigi R. Viggiano
+ * @since 1.0.11
+ */
+public class StreamingYAMLLoader extends YAMLLoader {
+    private static final long serialVersionUID = -5786811932213891407L;
+
+    private static final Resolver resolver = new Resolver(); // immutable once built
+
+    @Override
+    public void load(OwnerProperties result, InputStream input) {
+        new Stream(new ParserImpl(new StreamReader(new UnicodeReader(input))), result).load();
+    }
+
+    /**
+     * The state of a single load.
+     */
+    private static final class Stream {
+        private final Parser parser;
+        private final OwnerProperties result;
+        private final ValueConstructor scalars = new ValueConstructor();
+        private final Map<String, Node> anchors = new HashMap<String, Node>();
+        private final List<String> path = new ArrayList<String>();
+
+        Stream(Parser parser, OwnerProperties result) {
+            this.parser = parser;
+            this.result = result;
+        }
+
+        void load() {
+            parser.getEvent(); // stream start
+            if (!parser.checkEvent(Event.ID.DocumentStart))
+                return;
+            parser.getEvent();
+
+            Event event = parser.getEvent();
+            if (isStreamable(event)) {
+                loadMapping();
+            } else {
+                Object value = construct(compose(event));
+                if (value instanceof Map<?, ?>)
+                    result.putAll(stringKeys((Map<?, ?>) value));
+            }
+        }
+
+        private boolean isStreamable(Event event) {
+            if (!(event instanceof MappingStartEvent))
+                return false;
+            MappingStartEvent start = (MappingStartEvent) event;
+            String tag = start.getTag();
+            return start.getAnchor() == null && (tag == null || "!".equals(tag) || Tag.MAP.getValue().equals(tag));
+        }
+
+        /**
+         * Reads the entries of the mapping at the current path, up to its end.
+         */
+        private void loadMapping() {
+            while (!parser.checkEvent(Event.ID.MappingEnd)) {
+                Node keyNode = compose(parser.getEvent());
+                if (Tag.MERGE.equals(keyNode.getTag()))
+                    throw new UnsupportedOperationException(
+                            "The merge key is not supported by the StreamingYAMLLoader: " + keyNode.getStartMark());
+                path.add(String.valueOf(construct(keyNode)));
+
+                Event event = parser.getEvent();
+                if (isStreamable(event)) {
+                    put(new LinkedHashMap<String, Object>());
+                    loadMapping();
+                } else {
+                    put(construct(compose(event)));
+                }
+                path.remove(path.size() - 1);
+            }
+            parser.getEvent();
+        }
+
+        /**
+         * Puts the value at the current path, merging it as {@link OwnerProperties#putAll(Map)} does with the whole
+         * document.
+         */
+        private void put(Object value) {
+            Object current = value instanceof Map<?, ?> ? stringKeys((Map<?, ?>) value) : value;
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Map<String, Object> map = new LinkedHashMap<String, Object>(2);
+                map.put(path.get(i), current);
+                current = map;
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> map = (Map<String, Object>) current;
+            result.putAll(map);
+        }
+
+        private Node compose(Event event) {
+            if (event instanceof AliasEvent) {
+                String anchor = ((AliasEvent) event).getAnchor();
+                Node node = anchors.get(anchor);
+                if (node == null)
+                    throw new UnsupportedOperationException("Found undefined alias " + anchor + ": "
+                            + event.getStartMark());
+                return node;
+            }
+
+            String anchor = ((NodeEvent) event).getAnchor();
+            Node node;
+            if (event instanceof ScalarEvent) {
+                ScalarEvent scalar = (ScalarEvent) event;
+                String tag = scalar.getTag();
+                boolean resolved = tag == null || "!".equals(tag);
+                Tag nodeTag = resolved ? resolver.resolve(NodeId.scalar, scalar.getValue(),
+                        scalar.getImplicit().canOmitTagInPlainScalar()) : new Tag(tag);
+                node = new ScalarNode(nodeTag, resolved, scalar.getValue(), event.getStartMark(),
+                        event.getEndMark(), scalar.getStyle());
+                register(anchor, node);
+            } else if (event instanceof SequenceStartEvent) {
+                List<Node> children = new ArrayList<Node>();
+                SequenceNode sequence = new SequenceNode(tag((CollectionStartEvent) event, NodeId.sequence),
+                        isResolved((CollectionStartEvent) event), children, event.getStartMark(), null,
+                        ((CollectionStartEvent) event).getFlowStyle());
+                register(anchor, sequence);
+                while (!parser.checkEvent(Event.ID.SequenceEnd))
+                    children.add(compose(parser.getEvent()));
+                sequence.setEndMark(parser.getEvent().getEndMark());
+                node = sequence;
+            } else {
+                List<NodeTuple> children = new ArrayList<NodeTuple>();
+                MappingNode mapping = new MappingNode(tag((CollectionStartEvent) event, NodeId.mapping),
+                        isResolved((CollectionStartEvent) event), children, event.getStartMark(), null,
+                        ((CollectionStartEvent) event).getFlowStyle());
+                register(anchor, mapping);
+                while (!parser.checkEvent(Event.ID.MappingEnd))
+                    children.add(new NodeTuple(compose(parser.getEvent()), compose(parser.getEvent())));
+                mapping.setEndMark(parser.getEvent().getEndMark());
+                node = mapping;
+            }
+            return node;
+        }
+
+        private static boolean isResolved(CollectionStartEvent event) {
+            return event.getTag() == null || "!".equals(event.getTag());
+        }
+
+        private static Tag tag(CollectionStartEvent event, NodeId id) {
+            return isResolved(event) ? resolver.resolve(id, null, event.getImplicit()) : new Tag(event.getTag());
+        }
+
+        private void register(String anchor, Node node) {
+            if (anchor != null)
+                anchors.put(anchor, node);
+        }
+
+        /**
+         * Constructs the scalars with the same constructor, and the other nodes with a new one, since it keeps all the
+         * nodes it constructs.
+         */
+        private Object construct(Node node) {
+            if (node instanceof ScalarNode)
+                return scalars.constructScalarNode(node);
+            return new ValueConstructor().constructNode(node);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String, Object> stringKeys(Map<?, ?> map) {
+            for (Object key : map.keySet())
+                if (!(key instanceof String)) {
+                    Map<String, Object> result = new LinkedHashMap<String, Object>();
+                    for (Map.Entry<?, ?> entry : map.entrySet())
+                        result.put(String.valueOf(entry.getKey()), entry.getValue());
+                    return result;
+                }
+            return (Map<String, Object>) map;
+        }
+    }
+
+    /**
+     * Exposes the construction of the single nodes.
+     */
+    private static final class ValueConstructor extends Constructor {
+
+        Object constructScalarNode(Node node) {
+            return getConstructor(node).construct(node);
+        }
+
+        Object constructNode(Node node) {
+            return constructObject(node);
+        }
+    }
+
+}
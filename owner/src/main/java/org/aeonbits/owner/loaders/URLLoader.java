@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner.loaders;
+
+import java.io.IOException;
+import java.net.URL;
+
+import org.aeonbits.owner.OwnerProperties;
+
+/**
+ * A {@link Loader} that needs the URL to load the properties from, instead of the stream of its content; for instance
+ * to access the file it refers to.
+ *
+ * @author Luigi R. Viggiano
+ * @since 1.0.11
+ */
+public interface URLLoader extends Loader {
+
+    /**
+     * Loads the properties from the given {@link URL url} into the given {@link OwnerProperties result}.
+     *
+     * @param result    the resulting properties where to load the properties.
+     * @param url       the URL from where to load the properties.
+     * @throws IOException if the properties can't be read.
+     */
+    void load(OwnerProperties result, URL url) throws IOException;
+}
@@ -23,16 +23,23 @@ public class YAMLLoader implements Loader {
 
     public final static String YAML_EXTENSION = ".yaml";
 
+    // Yaml instances are expensive to build and not thread safe, so the loader reuses its own while holding its lock.
+    private transient Yaml yaml;
+
     public boolean accept(URL url) {
         //'.yaml' is the suggested extension, but some people still use '.yml'
-        return url.getFile().matches(".*\\.ya?ml$");
+        String file = url.getFile();
+        return file.endsWith(YAML_EXTENSION) || file.endsWith(".yml");
     }
 
     @SuppressWarnings("unchecked")
     public void load(OwnerProperties result, InputStream input) {
-        Yaml yaml = new Yaml();
-
-        Object loaded = yaml.load(input);
+        Object loaded;
+        synchronized (this) {
+            if (yaml == null)
+                yaml = new Yaml();
+            loaded = yaml.load(input);
+        }
 
         if (loaded instanceof Map<?, ?>) {
             result.putAll((Map<String, Object>) loaded);
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.aeonbits.owner.Config.CompactStorage;
+import org.aeonbits.owner.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Luigi R. Viggiano
+ */
+public class CompactOwnerPropertiesTest {
+    private OwnerProperties source;
+    private OwnerProperties compact;
+
+    @CompactStorage
+    interface CompactConfig extends Config {
+        @Key("server.http.port")
+        @DefaultValue("80")
+        int port();
+
+        @Key("server.http.host")
+        @DefaultValue("localhost")
+        String host();
+    }
+
+    @CompactStorage
+    interface MutableCompactConfig extends Config, Mutable {
+        @DefaultValue("foo")
+        String name();
+    }
+
+    @Before
+    public void before() {
+        Map<String, Object> nested = new LinkedHashMap<String, Object>();
+        nested.put("b", "nested");
+        nested.put("c", "80");
+        source = new OwnerProperties();
+        source.putAll(Collections.map("server.http.port", "80"));
+        source.putAll(Collections.map("server.http.host", "localhost"));
+        source.put("a", nested);
+        source.put("a.b", "exact");
+        source.put("name", new String("80"));
+        source.put("", "empty");
+        compact = CompactOwnerProperties.of(source);
+    }
+
+    @Test
+    public void shouldResolveTheSameValuesOfTheSource() {
+        for (String key : source.keySetRecursive())
+            assertEquals(key, source.get(key), compact.get(key));
+        assertEquals("exact", compact.get("a.b"));
+        assertEquals("nested", ((Map<?, ?>) compact.get("a")).get("b"));
+        assertNull(compact.get("server.https.port"));
+        assertNull(compact.get("server.http.port.number"));
+        assertNull(compact.get("server.http.por"));
+    }
+
+    @Test
+    public void shouldShareTheEqualValues() {
+        assertSame(compact.get("name"), compact.get("a.c"));
+    }
+
+    @Test
+    public void shouldBehaveAsTheSourceMap() {
+        assertEquals(source.keySetRecursive(), compact.keySetRecursive());
+        assertEquals(source.size(), compact.size());
+        assertEquals(source, compact);
+        assertEquals(compact, source);
+        assertEquals(source.hashCode(), compact.hashCode());
+        assertTrue(compact.containsKey("a.b"));
+        assertFalse(compact.containsKey("a.c"));
+        assertTrue(compact.containsValue("80"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotAllowToModifyTheProperties() {
+        compact.putAll(new HashMap<String, Object>());
+    }
+
+    @Test
+    public void shouldViewTheTopLevelProperties() {
+        assertEquals(source.entrySet(), compact.entrySet());
+        assertEquals(compact.entrySet(), source.entrySet());
+        assertEquals(source.keySet(), compact.keySet());
+        assertEquals(source.values().size(), compact.values().size());
+        assertTrue(compact.values().containsAll(source.values()));
+        assertEquals(new LinkedHashMap<String, Object>(compact).toString(), compact.toString());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotAllowToModifyThePropertiesThroughTheDefaultMethods() {
+        compact.putIfAbsent("new", "value");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotAllowToModifyThePropertiesThroughTheViews() {
+        compact.entrySet().iterator().next().setValue("changed");
+    }
+
+    @Test
+    public void shouldBeSerializedAsOwnerProperties() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(compact);
+        out.close();
+
+        Object result = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+        assertEquals(OwnerProperties.class, result.getClass());
+        assertEquals(source, result);
+        assertEquals("80", ((OwnerProperties) result).get("server.http.port"));
+    }
+
+    @Test
+    public void shouldUseTheCompactStoreForReadOnlyConfigs() {
+        CompactConfig cfg = ConfigFactory.create(CompactConfig.class);
+        assertEquals(80, cfg.port());
+        assertEquals("localhost", cfg.host());
+
+        PropertiesManager manager = new PropertiesManager(CompactConfig.class, new OwnerProperties(),
+                null, new VariablesExpander(new OwnerProperties()), new LoadersManager());
+        assertTrue(manager.load() instanceof CompactOwnerProperties);
+    }
+
+    @Test
+    public void shouldIgnoreTheCompactStoreForMutableConfigs() {
+        MutableCompactConfig cfg = ConfigFactory.create(MutableCompactConfig.class);
+        cfg.setProperty("name", "bar");
+        assertEquals("bar", cfg.name());
+    }
+
+}
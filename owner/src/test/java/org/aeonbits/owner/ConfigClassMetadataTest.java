@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner;
+
+import static org.aeonbits.owner.Config.DisableableFeature.PARAMETER_FORMATTING;
+import static org.aeonbits.owner.Config.DisableableFeature.RESULT_CACHING;
+import static org.aeonbits.owner.Config.DisableableFeature.VARIABLE_EXPANSION;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+
+import org.aeonbits.owner.Config.DisableFeature;
+import org.aeonbits.owner.Config.Group;
+import org.aeonbits.owner.Config.Sources;
+import org.aeonbits.owner.ConfigClassMetadata.MethodMetadata;
+import org.junit.Test;
+
+/**
+ * @author Luigi R. Viggiano
+ */
+public class ConfigClassMetadataTest {
+
+    @Group("server")
+    @DisableFeature(VARIABLE_EXPANSION)
+    @Sources("classpath:foo/bar.properties")
+    interface ServerConfig extends Config {
+        @DefaultValue("80")
+        int port();
+
+        @Key("host.name")
+        @DisableFeature(RESULT_CACHING)
+        String hostName();
+
+        @Separator(";")
+        String[] aliases();
+    }
+
+    interface SubConfig extends ServerConfig {
+        int port();
+    }
+
+    @Test
+    public void shouldBeComputedOncePerClass() {
+        assertSame(ConfigClassMetadata.of(ServerConfig.class), ConfigClassMetadata.of(ServerConfig.class));
+    }
+
+    @Test
+    public void shouldBeKeptWhenNotInUse() {
+        int identity = System.identityHashCode(ConfigClassMetadata.of(SubConfig.class));
+        System.gc();
+        assertEquals(identity, System.identityHashCode(ConfigClassMetadata.of(SubConfig.class)));
+    }
+
+    @Test
+    public void shouldReuseTheProxyConstructorWhenNoConfigIsAlive() throws NoSuchMethodException {
+        ConfigFactory.create(ServerConfig.class);
+        int identity = System.identityHashCode(ConfigClassMetadata.of(ServerConfig.class).proxyConstructor());
+        System.gc();
+        assertEquals(identity, System.identityHashCode(ConfigClassMetadata.of(ServerConfig.class).proxyConstructor()));
+    }
+
+    @Test
+    public void shouldComputeKeysAndDefaults() throws NoSuchMethodException {
+        ConfigClassMetadata metadata = ConfigClassMetadata.of(ServerConfig.class);
+        assertEquals("server.port", metadata.method(ServerConfig.class.getMethod("port")).key());
+        assertEquals("server.host.name", metadata.method(ServerConfig.class.getMethod("hostName")).key());
+        assertEquals("80", metadata.defaults().get("server.port"));
+        assertArrayEquals(new String[] { "classpath:foo/bar.properties" }, metadata.sources());
+        assertEquals("server.port", ConfigClassMetadata.of(SubConfig.class).method(SubConfig.class.getMethod("port"))
+                .key());
+    }
+
+    @Test
+    public void shouldComputeFeatureFlags() throws NoSuchMethodException {
+        Method hostName = ServerConfig.class.getMethod("hostName");
+        MethodMetadata metadata = ConfigClassMetadata.of(ServerConfig.class).method(hostName);
+        assertTrue(metadata.isFeatureDisabled(VARIABLE_EXPANSION));
+        assertTrue(metadata.isFeatureDisabled(RESULT_CACHING));
+        assertFalse(metadata.isFeatureDisabled(PARAMETER_FORMATTING));
+    }
+
+    @Test
+    public void shouldReuseTheSameTokenizer() throws NoSuchMethodException {
+        MethodMetadata metadata = ConfigClassMetadata.of(ServerConfig.class).method(
+                ServerConfig.class.getMethod("aliases"));
+        Tokenizer tokenizer = metadata.tokenizer();
+        assertSame(tokenizer, metadata.tokenizer());
+        assertArrayEquals(new String[] { "a", "b" }, tokenizer.tokens("a; b"));
+    }
+
+}
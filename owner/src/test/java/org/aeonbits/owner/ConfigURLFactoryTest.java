@@ -13,9 +13,14 @@ import org.junit.Test;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Luigi R. Viggiano
@@ -29,4 +34,21 @@ public class ConfigURLFactoryTest {
         assertNotNull(urls);
         assertFalse(urls.isEmpty());
     }
+
+    @Test
+    public void shouldCacheTheResolvedURLs() throws MalformedURLException {
+        ConcurrentMap<String, Collection<URL>> resolved = new ConcurrentHashMap<String, Collection<URL>>();
+        OwnerProperties props = new OwnerProperties();
+        props.put("name", "test");
+        ConfigURLFactory h = new ConfigURLFactory(this.getClass().getClassLoader(), new VariablesExpander(props),
+                resolved);
+
+        Collection<URL> urls = h.newURL("classpath:${name}.properties");
+        assertSame(urls, h.newURL("classpath:test.properties"));
+        assertSame(urls, resolved.get("classpath:test.properties"));
+
+        assertNull(h.newURL("classpath:foo/bar/thisDoesntExists.properties"));
+        assertTrue(resolved.get("classpath:foo/bar/thisDoesntExists.properties").isEmpty());
+        assertNull(h.newURL("classpath:foo/bar/thisDoesntExists.properties"));
+    }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.aeonbits.owner.Config.EagerResolution;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Luigi R. Viggiano
+ */
+public class EagerResolutionTest {
+
+    private EagerConfig cfg;
+
+    @EagerResolution
+    interface EagerConfig extends Config, Mutable, Reloadable {
+        @DefaultValue("18")
+        Integer minAge();
+
+        Integer maxAge();
+
+        @DefaultValue("Hello ${name}.")
+        String greeting();
+
+        @DefaultValue("world")
+        String name();
+
+        @DefaultValue("not a number")
+        Integer invalid();
+
+        @DefaultValue("Hello %s.")
+        String hello(String name);
+    }
+
+    @Before
+    public void before() {
+        cfg = ConfigFactory.create(EagerConfig.class);
+    }
+
+    @Test
+    public void shouldReturnPrecomputedValues() {
+        assertEquals(Integer.valueOf(18), cfg.minAge());
+        assertNull(cfg.maxAge());
+        assertEquals("Hello world.", cfg.greeting());
+        assertEquals("Hello Luigi.", cfg.hello("Luigi"));
+    }
+
+    @Test
+    public void shouldRecomputeValuesWhenPropertiesChange() {
+        assertEquals("Hello world.", cfg.greeting());
+        cfg.setProperty("maxAge", "99");
+        cfg.setProperty("name", "Earth");
+        assertEquals(Integer.valueOf(99), cfg.maxAge());
+        assertEquals("Hello Earth.", cfg.greeting());
+        cfg.removeProperty("minAge");
+        assertNull(cfg.minAge());
+    }
+
+    @Test
+    public void shouldRecomputeValuesOnReload() {
+        cfg.setProperty("minAge", "21");
+        assertEquals(Integer.valueOf(21), cfg.minAge());
+        cfg.reload();
+        assertEquals(Integer.valueOf(18), cfg.minAge());
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void shouldReportConversionErrorsWhenMethodIsInvoked() {
+        cfg.invalid();
+    }
+
+}
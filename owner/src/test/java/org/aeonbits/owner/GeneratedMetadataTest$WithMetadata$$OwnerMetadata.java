@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner;
+
+import static java.util.Collections.singletonMap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hand written equivalent of the class generated by the annotation processor for
+ * {@link GeneratedMetadataTest.WithMetadata}.
+ *
+ * @author Luigi R. Viggiano
+ */
+public final class GeneratedMetadataTest$WithMetadata$$OwnerMetadata implements ConfigMetadata {
+
+    public String[] sources() {
+        return null;
+    }
+
+    public Map<String, String> keys() {
+        return singletonMap("name()", "generated.name");
+    }
+
+    public Map<String, Object> defaults() {
+        Map<String, Object> result = new HashMap<String, Object>();
+        result.put("generated.name", "from metadata");
+        return result;
+    }
+
+}
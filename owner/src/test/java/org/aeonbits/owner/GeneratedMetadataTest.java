@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @author Luigi R. Viggiano
+ */
+public class GeneratedMetadataTest {
+
+    interface WithMetadata extends Config, Accessible {
+        @DefaultValue("from annotation")
+        String name();
+    }
+
+    interface WithoutMetadata extends Config {
+        @DefaultValue("from annotation")
+        String name();
+    }
+
+    @Test
+    public void shouldUseGeneratedMetadataWhenPresent() {
+        assertNotNull(GeneratedMetadata.lookup(WithMetadata.class));
+
+        WithMetadata cfg = ConfigFactory.create(WithMetadata.class);
+        assertEquals("from metadata", cfg.name());
+        assertEquals("from metadata", cfg.getProperty("generated.name"));
+    }
+
+    @Test
+    public void shouldFallBackToAnnotationsWhenMetadataIsNotGenerated() {
+        assertNull(GeneratedMetadata.lookup(WithoutMetadata.class));
+
+        WithoutMetadata cfg = ConfigFactory.create(WithoutMetadata.class);
+        assertEquals("from annotation", cfg.name());
+    }
+
+    @Test
+    public void shouldComputeSignatures() throws NoSuchMethodException {
+        assertEquals("name()", GeneratedMetadata.signature(WithMetadata.class.getMethod("name")));
+        assertEquals("subList(int,int)",
+                GeneratedMetadata.signature(List.class.getMethod("subList", int.class, int.class)));
+        assertEquals("format(java.lang.String,java.lang.Object[])", GeneratedMetadata.signature(
+                String.class.getMethod("format", String.class, Object[].class)));
+    }
+
+}
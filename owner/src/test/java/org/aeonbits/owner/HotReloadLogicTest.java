@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.aeonbits.owner.Config.HotReloadType.ASYNC;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.aeonbits.owner.Config.HotReload;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+/**
+ * @author Luigi R. Viggiano
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class HotReloadLogicTest {
+    @Mock
+    private PropertiesManager manager;
+    @Mock
+    private ScheduledExecutorService scheduler;
+    private final TimeProviderForTest time = new TimeProviderForTest();
+    private File file;
+    private HotReloadLogic logic;
+
+    @HotReload(value = 5, unit = SECONDS)
+    interface Watched extends Config {
+    }
+
+    @HotReload(value = 5, unit = SECONDS, type = ASYNC)
+    interface AsyncWatched extends Config {
+    }
+
+    @Before
+    public void before() throws IOException {
+        time.setup();
+        file = File.createTempFile("HotReloadLogicTest", ".properties");
+        file.setLastModified(10000);
+        logic = new HotReloadLogic(Watched.class.getAnnotation(HotReload.class), asList(file.toURI().toURL()),
+                manager);
+    }
+
+    @After
+    public void after() {
+        file.delete();
+        time.tearDown();
+    }
+
+    @Test
+    public void shouldNotCheckBeforeTheInterval() {
+        file.setLastModified(20000);
+        time.elapse(4, SECONDS);
+        logic.checkAndReload();
+        verify(manager, never()).reload();
+
+        time.elapse(1, SECONDS);
+        logic.checkAndReload();
+        verify(manager, times(1)).reload();
+    }
+
+    @Test
+    public void shouldNotWaitForTheCallerPerformingTheReload() throws InterruptedException {
+        final boolean[] returned = new boolean[1];
+        doAnswer(new Answer<Void>() {
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                Thread other = new Thread() {
+                    @Override
+                    public void run() {
+                        logic.checkAndReload();
+                        returned[0] = true;
+                    }
+                };
+                other.start();
+                other.join(5000);
+                return null;
+            }
+        }).when(manager).reload();
+
+        file.setLastModified(20000);
+        time.elapse(5, SECONDS);
+        logic.checkAndReload();
+
+        assertTrue(returned[0]);
+        verify(manager, times(1)).reload();
+    }
+
+    @Test
+    public void shouldCheckAgainWhenNotifiedDuringTheCheck() throws IOException {
+        doAnswer(new Answer<Void>() {
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                ((Runnable) invocation.getArguments()[0]).run();
+                return null;
+            }
+        }).when(scheduler).execute(any(Runnable.class));
+        final HotReloadLogic async = new HotReloadLogic(AsyncWatched.class.getAnnotation(HotReload.class),
+                asList(file.toURI().toURL()), manager, watcher(true), scheduler);
+        doAnswer(new Answer<Void>() {
+            private boolean first = true;
+
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                if (first) {
+                    first = false;
+                    async.fileChanged(file); // the check it triggers finds this one running
+                }
+                return null;
+            }
+        }).when(manager).reload();
+
+        async.fileChanged(file);
+
+        verify(manager, times(2)).reload();
+    }
+
+    @Test
+    public void shouldNotPollTheWatchedFiles() throws IOException {
+        new HotReloadLogic(AsyncWatched.class.getAnnotation(HotReload.class), asList(file.toURI().toURL()), manager,
+                watcher(true), scheduler);
+
+        verify(scheduler, never()).scheduleAtFixedRate(any(Runnable.class), anyLong(), anyLong(), eq(MILLISECONDS));
+    }
+
+    @Test
+    public void shouldPollTheFilesThatCantBeWatched() throws IOException {
+        new HotReloadLogic(AsyncWatched.class.getAnnotation(HotReload.class), asList(file.toURI().toURL()), manager,
+                watcher(false), scheduler);
+
+        verify(scheduler, times(1)).scheduleAtFixedRate(any(Runnable.class), eq(5000L), eq(5000L), eq(MILLISECONDS));
+    }
+
+    private static FileWatcher watcher(final boolean supported) {
+        return new FileWatcher() {
+            @Override
+            boolean watch(File file, Listener listener) {
+                return supported;
+            }
+
+            @Override
+            boolean isWatched(File file) {
+                return supported;
+            }
+        };
+    }
+
+}
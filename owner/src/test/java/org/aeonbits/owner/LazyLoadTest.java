@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner;
+
+import static java.lang.reflect.Proxy.newProxyInstance;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aeonbits.owner.Config.EagerResolution;
+import org.aeonbits.owner.Config.LazyLoad;
+import org.aeonbits.owner.Config.Sources;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * @author Luigi R. Viggiano
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LazyLoadTest {
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @LazyLoad
+    @Sources("classpath:org/aeonbits/owner/first.properties")
+    interface LazyConfig extends Config {
+        String foo();
+
+        @DefaultValue("default")
+        String missing();
+    }
+
+    @EagerResolution
+    interface LazyEagerConfig extends LazyConfig {
+    }
+
+    private static class CountingManager extends PropertiesManagerForTest {
+        private static final long serialVersionUID = -2418735329571236124L;
+        final AtomicInteger loads = new AtomicInteger();
+
+        CountingManager(Class<? extends Config> clazz, ScheduledExecutorService scheduler) {
+            super(clazz, new OwnerProperties(), scheduler, new VariablesExpander(new OwnerProperties()),
+                    new LoadersManager());
+        }
+
+        @Override
+        public OwnerProperties load() {
+            loads.incrementAndGet();
+            Thread.yield();
+            return super.load();
+        }
+    }
+
+    private static <T extends Config> T proxy(Class<T> clazz, CountingManager manager) {
+        PropertiesInvocationHandler handler = new PropertiesInvocationHandler(manager, clazz);
+        return clazz.cast(newProxyInstance(clazz.getClassLoader(), new Class<?>[] { clazz }, handler));
+    }
+
+    @Test
+    public void shouldLoadTheOtherConfigWhenComparing() {
+        CountingManager manager = new CountingManager(LazyConfig.class, scheduler);
+        CountingManager other = new CountingManager(LazyConfig.class, scheduler);
+        LazyConfig cfg = proxy(LazyConfig.class, manager);
+        LazyConfig otherCfg = proxy(LazyConfig.class, other);
+
+        assertTrue(cfg.equals(otherCfg));
+        assertEquals(1, other.loads.get());
+        assertTrue(otherCfg.equals(cfg));
+        assertEquals(1, manager.loads.get());
+    }
+
+    @Test
+    public void shouldLoadOnFirstInvocation() {
+        CountingManager manager = new CountingManager(LazyConfig.class, scheduler);
+        LazyConfig cfg = proxy(LazyConfig.class, manager);
+        assertEquals(0, manager.loads.get());
+
+        assertEquals("first", cfg.foo());
+        assertEquals("default", cfg.missing());
+        assertEquals(1, manager.loads.get());
+    }
+
+    @Test
+    public void shouldPrecomputeValuesOnFirstInvocation() {
+        CountingManager manager = new CountingManager(LazyEagerConfig.class, scheduler);
+        LazyEagerConfig cfg = proxy(LazyEagerConfig.class, manager);
+        assertEquals(0, manager.loads.get());
+        assertEquals("first", cfg.foo());
+        assertEquals(1, manager.loads.get());
+    }
+
+    @Test
+    public void shouldLoadOnceWhenInvokedConcurrently() throws InterruptedException {
+        CountingManager manager = new CountingManager(LazyConfig.class, scheduler);
+        final LazyConfig cfg = proxy(LazyConfig.class, manager);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Object> results = new ArrayList<Object>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++)
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    String value = cfg.foo();
+                    synchronized (results) {
+                        results.add(value);
+                    }
+                }
+            });
+        for (Thread thread : threads)
+            thread.start();
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(1, manager.loads.get());
+        assertEquals(8, results.size());
+        for (Object result : results)
+            assertEquals("first", result);
+    }
+
+    @Test
+    public void shouldLoadOnCreationByDefault() {
+        CountingManager manager = new CountingManager(Config.class, scheduler);
+        proxy(Config.class, manager);
+        assertEquals(1, manager.loads.get());
+    }
+
+}
@@ -10,8 +10,10 @@ package org.aeonbits.owner;
 
 import static org.aeonbits.owner.UtilTest.fileFromURL;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
@@ -19,6 +21,7 @@ import java.util.concurrent.ScheduledExecutorService;
 
 import org.aeonbits.owner.Config.Sources;
 import org.aeonbits.owner.loaders.Loader;
+import org.aeonbits.owner.loaders.MappedPropertiesLoader;
 import org.aeonbits.owner.loaders.PropertiesLoader;
 import org.aeonbits.owner.loaders.YAMLLoader;
 import org.junit.After;
@@ -115,6 +118,99 @@ public class LoaderManagerTest implements TestConstants {
         assertEquals("bar", cfg.foo());
     }
 
+    @Test
+    public void testSourcesAreParsedOncePerFactory() throws IOException {
+        CountingLoader loader = new CountingLoader();
+        Factory factory = new DefaultFactory(scheduler, new OwnerProperties());
+        factory.registerLoader(loader);
+
+        assertEquals(null, factory.create(MyConfig.class).foo());
+        assertEquals(null, factory.create(MyConfig.class).foo());
+        assertEquals(1, loader.count);
+
+        FileWriter writer = new FileWriter(target);
+        try {
+            writer.write("foo=changed");
+        } finally {
+            writer.close();
+        }
+        MyConfig cfg = factory.create(MyConfig.class);
+        assertEquals("changed", cfg.foo());
+        assertEquals(2, loader.count);
+    }
+
+    @Test
+    public void testMappedSourcesAreNotCached() throws IOException {
+        File directory = new File(target.getParentFile(), "LoaderManagerTest.indexes");
+        MappedCountingLoader loader = new MappedCountingLoader(directory);
+        LoadersManager loaders = new LoadersManager();
+        loaders.registerLoader(loader);
+        try {
+            loaders.load(new OwnerProperties(), new URL(SPEC));
+            loaders.load(new OwnerProperties(), new URL(SPEC));
+            assertEquals(2, loader.count);
+        } finally {
+            for (File file : directory.listFiles())
+                file.delete();
+            directory.delete();
+        }
+    }
+
+    public static class MappedCountingLoader extends MappedPropertiesLoader {
+        private static final long serialVersionUID = 6027337815211592874L;
+        int count = 0;
+
+        public MappedCountingLoader(File directory) {
+            super(directory, 0);
+        }
+
+        @Override
+        public void load(OwnerProperties result, URL url) throws IOException {
+            count++;
+            super.load(result, url);
+        }
+    }
+
+    public static class CountingLoader extends PropertiesLoader {
+        private static final long serialVersionUID = -5016436393812519235L;
+        int count = 0;
+
+        @Override
+        public void load(OwnerProperties result, InputStream input) throws IOException {
+            count++;
+            super.load(result, input);
+        }
+    }
+
+    @Test
+    public void testResolvedLoaderIsCachedPerURL() throws IOException {
+        AcceptCountingLoader loader = new AcceptCountingLoader();
+        LoadersManager loaders = new LoadersManager();
+        loaders.registerLoader(loader);
+        URL url = new URL(SPEC);
+
+        assertSame(loader, loaders.findLoader(url));
+        assertSame(loader, loaders.findLoader(url));
+        assertEquals(1, loader.accepted);
+
+        YAMLLoader yaml = new YAMLLoader();
+        loaders.registerLoader(yaml);
+        assertSame(loader, loaders.findLoader(url));
+        assertEquals(2, loader.accepted);
+        assertSame(yaml, loaders.findLoader(new URL("file:" + RESOURCES_DIR + "/LoaderManagerTest.yml")));
+    }
+
+    public static class AcceptCountingLoader extends PropertiesLoader {
+        private static final long serialVersionUID = -3389432861066563315L;
+        int accepted = 0;
+
+        @Override
+        public boolean accept(URL url) {
+            accepted++;
+            return super.accept(url);
+        }
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testRegisterNull() {
         Factory factory = ConfigFactory.newInstance();
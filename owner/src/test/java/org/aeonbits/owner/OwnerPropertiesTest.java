@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.aeonbits.owner.util.Collections;
+import org.junit.Test;
+
+/**
+ * @author Luigi R. Viggiano
+ */
+public class OwnerPropertiesTest {
+
+    @Test
+    public void shouldResolveDottedKeysInNestedMaps() {
+        OwnerProperties props = new OwnerProperties();
+        props.putAll(Collections.map("server.http.port", "80"));
+        props.putAll(Collections.map("server.http.host", "localhost"));
+
+        assertEquals("80", props.get("server.http.port"));
+        assertEquals("localhost", props.get("server.http.host"));
+        assertTrue(props.get("server.http") instanceof Map<?, ?>);
+        assertNull(props.get("server.https.port"));
+        assertNull(props.get("server.http.port.number"));
+    }
+
+    @Test
+    public void shouldPreferTheExactKey() {
+        Map<String, Object> nested = new HashMap<String, Object>();
+        nested.put("b", "nested");
+        OwnerProperties props = new OwnerProperties();
+        props.put("a", nested);
+        assertEquals("nested", props.get("a.b"));
+
+        props.put("a.b", "exact");
+        assertEquals("exact", props.get("a.b"));
+
+        props.remove("a.b");
+        assertEquals("nested", props.get("a.b"));
+    }
+
+    @Test
+    public void shouldSeeChangesToTheNestedKeys() {
+        OwnerProperties props = new OwnerProperties();
+        props.putAll(Collections.map("server.port", "80"));
+        assertEquals("80", props.get("server.port"));
+
+        props.putAll(Collections.map("server.port", "8080"));
+        assertEquals("8080", props.get("server.port"));
+
+        props.put("server", "none");
+        assertNull(props.get("server.port"));
+
+        props.clear();
+        assertNull(props.get("server"));
+    }
+
+    @Test
+    public void shouldMergeKeysWithEmptyItemsAsSplitDoes() {
+        OwnerProperties props = new OwnerProperties();
+        props.putAll(Collections.map("a..b.", "value"));
+        assertEquals("value", props.get("a..b"));
+    }
+
+    @Test
+    public void shouldKeepTheRecursiveKeysUpToDate() {
+        OwnerProperties props = new OwnerProperties();
+        props.putAll(Collections.map("server.http.port", "80"));
+        Set<String> keys = props.keySetRecursive();
+        assertEquals(set("server", "server.http", "server.http.port"), keys);
+
+        props.putAll(Collections.map("server.http.host", "localhost"));
+        props.put("server.http", "exact");
+        props.put("name", "foo");
+        assertEquals(set("server", "server.http", "server.http.port", "server.http.host", "name"), keys);
+
+        props.remove("server.http");
+        assertEquals(set("server", "server.http", "server.http.port", "server.http.host", "name"), keys);
+
+        props.put("server", "none");
+        assertEquals(set("server", "name"), keys);
+
+        OwnerProperties copy = new OwnerProperties(props);
+        copy.remove("name");
+        assertEquals(set("server"), copy.keySetRecursive());
+        assertEquals(set("server", "name"), keys);
+
+        props.clear();
+        assertTrue(keys.isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotAllowToModifyTheRecursiveKeys() {
+        new OwnerProperties().keySetRecursive().add("foo");
+    }
+
+    private static Set<String> set(String... values) {
+        return new HashSet<String>(Arrays.asList(values));
+    }
+
+}
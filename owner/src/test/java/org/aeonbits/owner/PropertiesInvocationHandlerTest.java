@@ -8,11 +8,15 @@
 
 package org.aeonbits.owner;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.io.PrintStream;
 import java.io.PrintWriter;
+import java.lang.reflect.Method;
 import java.util.concurrent.ScheduledExecutorService;
 
 import org.junit.Before;
@@ -42,6 +46,7 @@ public class PropertiesInvocationHandlerTest {
     private final VariablesExpander expander = new VariablesExpander(new OwnerProperties());
 
     interface Dummy extends Config {
+        String missing();
     }
 
     @Before
@@ -62,6 +67,21 @@ public class PropertiesInvocationHandlerTest {
         verify(properties).list(eq(printWriter));
     }
 
+    @Test
+    public void testObjectMethodsAreDispatchedToPropertiesManager() throws Throwable {
+        properties.put("foo", "bar");
+        Object result = handler.invoke(proxy, Object.class.getMethod("toString"), null);
+        assertEquals(properties.toString(), result);
+    }
+
+    @Test
+    public void testMissingPropertiesAreCached() throws Throwable {
+        Method missing = Dummy.class.getMethod("missing");
+        assertNull(handler.invoke(proxy, missing, null));
+        assertNull(handler.invoke(proxy, missing, null));
+        verify(properties, times(1)).get("missing");
+    }
+
     public interface MyConfig extends Config, Accessible {
         void list(PrintStream out);
 
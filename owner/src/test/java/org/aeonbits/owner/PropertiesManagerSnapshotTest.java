@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * @author Luigi R. Viggiano
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PropertiesManagerSnapshotTest {
+    @Mock
+    private ScheduledExecutorService scheduler;
+    private PropertiesManagerForTest manager;
+
+    interface SnapshotConfig extends Config, Mutable {
+        @DefaultValue("Hello")
+        String greeting();
+    }
+
+    @Before
+    public void before() {
+        manager = new PropertiesManagerForTest(SnapshotConfig.class, new OwnerProperties(), scheduler,
+                new VariablesExpanderForTest(new OwnerProperties()), new LoadersManagerForTest());
+        manager.setProxy(new Object());
+        manager.load();
+    }
+
+    @Test
+    public void shouldNotModifyPublishedSnapshotOnSetProperty() {
+        OwnerProperties before = manager.snapshot();
+        manager.setProperty("greeting", "Ciao");
+
+        assertEquals("Hello", before.get("greeting"));
+        assertNotSame(before, manager.snapshot());
+        assertEquals("Ciao", manager.getProperty("greeting"));
+    }
+
+    @Test
+    public void shouldNotModifyPublishedSnapshotOnRemoveAndClear() {
+        OwnerProperties before = manager.snapshot();
+        manager.removeProperty("greeting");
+        assertNull(manager.getProperty("greeting"));
+
+        OwnerProperties removed = manager.snapshot();
+        manager.setProperty("foo", "bar");
+        manager.clear();
+
+        assertEquals("Hello", before.get("greeting"));
+        assertNotSame(removed, manager.snapshot());
+        assertNull(manager.getProperty("foo"));
+    }
+
+}
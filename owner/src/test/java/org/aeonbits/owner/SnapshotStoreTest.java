@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner;
+
+import static java.util.Arrays.asList;
+import static org.aeonbits.owner.UtilTest.delete;
+import static org.aeonbits.owner.UtilTest.fileFromURL;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import org.aeonbits.owner.Config.DefaultValue;
+import org.aeonbits.owner.Config.DefaultValues;
+import org.aeonbits.owner.Config.Sources;
+import org.aeonbits.owner.LoaderManagerTest.CountingLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Luigi R. Viggiano
+ */
+public class SnapshotStoreTest implements TestConstants {
+    private static final String SPEC = "file:" + RESOURCES_DIR + "/SnapshotStoreTest.properties";
+
+    private File source;
+    private File directory;
+
+    @Sources(SPEC)
+    interface SnapshotConfig extends Config {
+        String foo();
+
+        @DefaultValue("default")
+        String bar();
+
+        @DefaultValues({"a", "b"})
+        List<String> baz();
+    }
+
+    @Before
+    public void before() throws IOException {
+        source = fileFromURL(SPEC);
+        source.getParentFile().mkdirs();
+        directory = new File(RESOURCES_DIR, "snapshots");
+        write("foo=first");
+    }
+
+    @After
+    public void after() {
+        source.delete();
+        File[] files = directory.listFiles();
+        if (files != null)
+            for (File file : files)
+                delete(file);
+        delete(directory);
+    }
+
+    private void write(String text) throws IOException {
+        FileWriter writer = new FileWriter(source);
+        try {
+            writer.write(text);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static Factory factory(File directory, CountingLoader loader) {
+        DefaultFactory factory = (DefaultFactory) ConfigFactory.newInstance();
+        factory.registerLoader(loader);
+        factory.setSnapshotDirectory(directory);
+        return factory;
+    }
+
+    @Test
+    public void shouldReadTheSnapshotInsteadOfTheSources() {
+        CountingLoader loader = new CountingLoader();
+        SnapshotConfig cfg = factory(directory, loader).create(SnapshotConfig.class);
+        assertEquals("first", cfg.foo());
+        assertEquals(1, loader.count);
+        assertTrue(new File(directory, SnapshotConfig.class.getName() + ".snapshot").isFile());
+
+        loader = new CountingLoader();
+        cfg = factory(directory, loader).create(SnapshotConfig.class);
+        assertEquals(0, loader.count);
+        assertEquals("first", cfg.foo());
+        assertEquals("default", cfg.bar());
+        assertEquals(asList("a", "b"), cfg.baz());
+    }
+
+    @Test
+    public void shouldParseTheSourcesWhenTheyChange() throws IOException {
+        factory(directory, new CountingLoader()).create(SnapshotConfig.class);
+        write("foo=changed\nbar=overridden");
+
+        CountingLoader loader = new CountingLoader();
+        SnapshotConfig cfg = factory(directory, loader).create(SnapshotConfig.class);
+        assertEquals(1, loader.count);
+        assertEquals("changed", cfg.foo());
+        assertEquals("overridden", cfg.bar());
+    }
+
+    @Test
+    public void shouldParseTheSourcesWhenTheSnapshotIsCorrupted() throws IOException {
+        factory(directory, new CountingLoader()).create(SnapshotConfig.class);
+        File snapshot = new File(directory, SnapshotConfig.class.getName() + ".snapshot");
+        RandomAccessFile raf = new RandomAccessFile(snapshot, "rw");
+        try {
+            raf.setLength(raf.length() - 8); // truncated while it was written
+        } finally {
+            raf.close();
+        }
+
+        CountingLoader loader = new CountingLoader();
+        SnapshotConfig cfg = factory(directory, loader).create(SnapshotConfig.class);
+        assertEquals(1, loader.count);
+        assertEquals("first", cfg.foo());
+    }
+
+    @Test
+    public void shouldNotKeepValuesOtherThanStrings() {
+        SnapshotStore store = new SnapshotStore(directory);
+        List<String> fingerprint = asList("source");
+        OwnerProperties properties = new OwnerProperties();
+        properties.put("foo", "first");
+        properties.put("port", 8080);
+
+        store.write(SnapshotConfig.class, fingerprint, properties);
+        assertFalse(new File(directory, SnapshotConfig.class.getName() + ".snapshot").exists());
+
+        properties.remove("port");
+        store.write(SnapshotConfig.class, fingerprint, properties);
+        OwnerProperties result = new OwnerProperties();
+        assertTrue(store.read(SnapshotConfig.class, fingerprint, result));
+        assertEquals("first", result.get("foo"));
+    }
+
+    @Test
+    public void shouldNotAllocateTheLengthsOfACorruptedSnapshot() throws IOException {
+        directory.mkdirs();
+        DataOutputStream output = new DataOutputStream(new FileOutputStream(
+                new File(directory, SnapshotConfig.class.getName() + ".snapshot")));
+        try {
+            output.writeInt(0x4f574e53);
+            output.writeInt(2);
+            output.writeInt(1);
+            output.writeInt(Integer.MAX_VALUE - 8); // the length of the first item of the fingerprint
+        } finally {
+            output.close();
+        }
+
+        OwnerProperties result = new OwnerProperties();
+        assertFalse(new SnapshotStore(directory).read(SnapshotConfig.class, asList("source"), result));
+        assertEquals(0, result.size());
+    }
+
+}
@@ -9,7 +9,9 @@
 package org.aeonbits.owner;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import org.junit.Test;
 
@@ -91,4 +93,52 @@ public class StrSubstitutorTest {
         assertEquals(expected, result);
     }
 
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldDetectCyclicVariables() {
+        OwnerProperties values = new OwnerProperties();
+        values.put("foo", "${bar}");
+        values.put("bar", "x${baz}");
+        values.put("baz", "${foo}");
+        new StrSubstitutor(values).replace("${foo}");
+    }
+
+    @Test
+    public void shouldAllowTheSameVariableMoreTimes() {
+        OwnerProperties values = new OwnerProperties();
+        values.put("foo", "${bar}-${bar}");
+        values.put("bar", "baz");
+        assertEquals("baz-baz", new StrSubstitutor(values).replace("${foo}"));
+    }
+
+    @Test
+    public void shouldKeepTextNotMatchingVariables() {
+        OwnerProperties values = new OwnerProperties();
+        values.put("}", "brace");
+        values.put("foo", "bar");
+        StrSubstitutor sub = new StrSubstitutor(values);
+        assertEquals("$ {foo} $", sub.replace("$ {foo} $"));
+        assertEquals("brace", sub.replace("${}}"));
+        assertEquals("${foo", sub.replace("${foo"));
+        assertEquals("${fo\no} bar", sub.replace("${fo\no} ${foo}"));
+    }
+
+    @Test
+    public void shouldCompileTemplatesOnce() {
+        OwnerProperties values = new OwnerProperties();
+        values.put("foo", "bar");
+        StrSubstitutor sub = new StrSubstitutor(values);
+        assertSame(sub.template("${foo}"), sub.template("${foo}"));
+        assertSame(sub.template("${foo}"), sub.withValues(new OwnerProperties()).template("${foo}"));
+        assertEquals("", sub.withValues(new OwnerProperties()).replace("${foo}"));
+    }
+
+    @Test
+    public void shouldDropTheTemplatesBeyondTheLimit() {
+        StrSubstitutor sub = new StrSubstitutor(new OwnerProperties());
+        Object first = sub.template("${value0}");
+        for (int i = 1; i < 2000; i++)
+            sub.withValues(new OwnerProperties()).template("${value" + i + "}");
+        assertNotSame(first, sub.template("${value0}"));
+    }
+
 }
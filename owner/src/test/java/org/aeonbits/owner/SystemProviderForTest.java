@@ -27,6 +27,10 @@ public class SystemProviderForTest implements SystemProvider {
         return system.get(key);
     }
 
+    public Object getenv(String key) {
+        return env.get(key);
+    }
+
     public OwnerProperties getenv() {
         return env;
     }
@@ -10,6 +10,7 @@ package org.aeonbits.owner;
 
 import static org.junit.Assert.assertEquals;
 
+import org.aeonbits.owner.Util.SystemProvider;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -66,4 +67,25 @@ public class SystemVariableExpanderTest {
         assertEquals(expected, result);
     }
 
+    @Test
+    public void shouldLookUpTheVariablesInPropertiesThenSystemPropertiesThenEnvironment() {
+        OwnerProperties system = new OwnerProperties();
+        system.put("java.vm.name", "vm");
+        system.put("shared", "system");
+        OwnerProperties env = new OwnerProperties();
+        env.put("HOME_DIR", "/home/john");
+        env.put("shared", "env");
+        env.put("both", "env");
+        SystemProvider save = UtilTest.setSystem(new SystemProviderForTest(system, env));
+        try {
+            OwnerProperties props = new OwnerProperties();
+            props.put("both", "props");
+            expander = new VariablesExpander(props);
+            assertEquals("vm-/home/john-system-props-",
+                    expander.expand("${java.vm.name}-${HOME_DIR}-${shared}-${both}-${missing}"));
+        } finally {
+            UtilTest.setSystem(save);
+        }
+    }
+
 }
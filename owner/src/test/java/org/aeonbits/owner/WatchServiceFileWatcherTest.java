@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Luigi R. Viggiano
+ */
+public class WatchServiceFileWatcherTest {
+    private final WatchServiceFileWatcher watcher = new WatchServiceFileWatcher();
+    private File file;
+
+    private static class LatchListener implements FileWatcher.Listener {
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        public void fileChanged(File file) {
+            latch.countDown();
+        }
+
+        boolean await() throws InterruptedException {
+            return latch.await(30, SECONDS);
+        }
+    }
+
+    @Before
+    public void before() throws IOException {
+        file = File.createTempFile("FileWatcherTest", ".properties");
+    }
+
+    @After
+    public void after() {
+        file.delete();
+    }
+
+    @Test
+    public void shouldNotifyAllTheListenersOfTheFile() throws Exception {
+        LatchListener first = new LatchListener();
+        LatchListener second = new LatchListener();
+        assertTrue(watcher.watch(file, first));
+        assertTrue(watcher.watch(file, second));
+        assertTrue(watcher.isWatched(file));
+
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write("foo=bar\n");
+        } finally {
+            writer.close();
+        }
+
+        assertTrue(first.await());
+        assertTrue(second.await());
+    }
+
+    @Test
+    public void shouldNotWatchFilesInMissingDirectories() {
+        File missing = new File(file.getParentFile(), "missing-directory/foo.properties");
+        assertFalse(watcher.watch(missing, new LatchListener()));
+        assertFalse(watcher.isWatched(missing));
+    }
+
+    @Test
+    public void shouldStopWhenNoListenersRemain() throws Exception {
+        LatchListener listener = new LatchListener();
+        assertTrue(watcher.watch(file, listener));
+        assertFalse(watcher.purge());
+
+        WeakReference<LatchListener> reference = new WeakReference<LatchListener>(listener);
+        listener = null;
+        for (int i = 0; i < 100 && reference.get() != null; i++)
+            System.gc();
+        assertTrue(watcher.purge());
+        assertFalse(watcher.isWatched(file));
+
+        LatchListener other = new LatchListener();
+        assertTrue(watcher.watch(file, other)); // restarted
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write("foo=bar\n");
+        } finally {
+            writer.close();
+        }
+        assertTrue(other.await());
+    }
+
+}
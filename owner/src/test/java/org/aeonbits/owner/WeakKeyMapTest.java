@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+
+import org.junit.Test;
+
+/**
+ * @author Luigi R. Viggiano
+ */
+public class WeakKeyMapTest {
+    private final WeakKeyMap<Object, String> map = new WeakKeyMap<Object, String>();
+
+    @Test
+    public void shouldCompareTheKeysByIdentity() {
+        String key = new String("key");
+        assertNull(map.putIfAbsent(key, "first"));
+        assertEquals("first", map.putIfAbsent(key, "second"));
+        assertEquals("first", map.get(key));
+        assertNull(map.get(new String("key")));
+    }
+
+    @Test
+    public void shouldReplaceTheGivenValue() {
+        Object key = new Object();
+        map.putIfAbsent(key, "first");
+        assertFalse(map.replace(key, "other", "second"));
+        assertTrue(map.replace(key, "first", "second"));
+        assertEquals("second", map.get(key));
+    }
+
+    @Test
+    public void shouldNotKeepTheKeysAlive() {
+        Object key = new Object();
+        map.putIfAbsent(key, "value");
+        assertEquals(1, map.size());
+
+        WeakReference<Object> reference = new WeakReference<Object>(key);
+        key = null;
+        for (int i = 0; i < 100 && (reference.get() != null || map.size() > 0); i++)
+            System.gc();
+        assertEquals(0, map.size());
+    }
+
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner.loaders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import org.aeonbits.owner.Config;
+import org.aeonbits.owner.Config.Sources;
+import org.aeonbits.owner.ConfigFactory;
+import org.aeonbits.owner.Factory;
+import org.aeonbits.owner.OwnerProperties;
+import org.aeonbits.owner.Reloadable;
+import org.aeonbits.owner.TestConstants;
+import org.aeonbits.owner.util.Collections;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Luigi R. Viggiano
+ */
+public class MappedPropertiesLoaderTest implements TestConstants {
+    private static final String SPEC = "file:" + RESOURCES_DIR + "/MappedPropertiesLoaderTest.properties";
+
+    private File source;
+    private File indexes;
+    private MappedPropertiesLoader loader;
+
+    @Sources(SPEC)
+    interface MappedConfig extends Config, Reloadable {
+        @DefaultValue("default")
+        String name();
+
+        @Key("server.port")
+        @DefaultValue("80")
+        int port();
+
+        @DefaultValue("default")
+        String imported();
+
+        @DefaultValue("default")
+        String missing();
+    }
+
+    @Before
+    public void before() throws IOException {
+        source = new File(RESOURCES_DIR, "MappedPropertiesLoaderTest.properties");
+        indexes = new File(RESOURCES_DIR, "MappedPropertiesLoaderTest-indexes");
+        source.getParentFile().mkdirs();
+        save("name", "mapped", "server.port", "8080", "imported", "mapped", "unicode", "è中");
+        loader = new MappedPropertiesLoader(indexes, 0);
+    }
+
+    @After
+    public void after() {
+        source.delete();
+        File[] files = indexes.listFiles();
+        if (files != null)
+            for (File file : files)
+                file.delete();
+        indexes.delete();
+    }
+
+    private void save(String... keysAndValues) throws IOException {
+        Properties props = new Properties();
+        for (int i = 0; i < keysAndValues.length; i += 2)
+            props.setProperty(keysAndValues[i], keysAndValues[i + 1]);
+        long lastModified = source.lastModified();
+        OutputStream out = new FileOutputStream(source);
+        try {
+            props.store(out, null);
+        } finally {
+            out.close();
+        }
+        if (lastModified != 0)
+            source.setLastModified(lastModified + 2000); // the file system may not be precise enough
+    }
+
+    @Test
+    public void shouldServeThePropertiesFromTheIndex() throws IOException {
+        OwnerProperties result = new OwnerProperties();
+        loader.load(result, source.toURI().toURL());
+
+        assertEquals("mapped", result.get("name"));
+        assertEquals("8080", result.get("server.port"));
+        assertEquals("è中", result.get("unicode"));
+        assertNull(result.get("missing"));
+        assertTrue(result.containsKey("server.port"));
+        assertEquals(0, result.size());
+        assertTrue(result.keySetRecursive().contains("unicode"));
+    }
+
+    @Test
+    public void shouldKeepTheLastValueOfRepeatedKeys() throws IOException {
+        write(source, "name=first\nport=80\nname=second\n");
+        OwnerProperties result = new OwnerProperties();
+        loader.load(result, source.toURI().toURL());
+
+        assertEquals("second", result.get("name"));
+        assertEquals("80", result.get("port"));
+        assertEquals(2, result.keySetRecursive().size());
+    }
+
+    @Test
+    public void shouldReuseTheIndexWhileTheFileIsUnchanged() throws IOException {
+        OwnerProperties first = new OwnerProperties();
+        loader.load(first, source.toURI().toURL());
+        long lastModified = indexes.listFiles()[0].lastModified();
+
+        OwnerProperties second = new OwnerProperties();
+        new MappedPropertiesLoader(indexes, 0).load(second, source.toURI().toURL());
+        assertEquals(1, indexes.listFiles().length);
+        assertEquals(lastModified, indexes.listFiles()[0].lastModified());
+        assertEquals("mapped", second.get("name"));
+    }
+
+    @Test
+    public void shouldNotServeTheIndexOfAnotherFile() throws IOException {
+        File other = new File(RESOURCES_DIR, "MappedPropertiesLoaderTest-other.properties");
+        try {
+            write(other, "name=others");
+            write(source, "name=source");
+            other.setLastModified(source.lastModified());
+            loader.load(new OwnerProperties(), source.toURI().toURL());
+            loader.load(new OwnerProperties(), other.toURI().toURL());
+            copy(indexFor(source), indexFor(other)); // as if the names of the index files collided
+
+            OwnerProperties result = new OwnerProperties();
+            new MappedPropertiesLoader(indexes, 0).load(result, other.toURI().toURL());
+            assertEquals("others", result.get("name"));
+        } finally {
+            other.delete();
+        }
+    }
+
+    private static void write(File file, String text) throws IOException {
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write(text);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private File indexFor(File source) {
+        for (File file : indexes.listFiles())
+            if (file.getName().startsWith(source.getName() + "-"))
+                return file;
+        throw new AssertionError("missing index for " + source);
+    }
+
+    private static void copy(File from, File to) throws IOException {
+        InputStream input = new FileInputStream(from);
+        try {
+            OutputStream output = new FileOutputStream(to);
+            try {
+                byte[] buffer = new byte[8192];
+                for (int read; (read = input.read(buffer)) >= 0; )
+                    output.write(buffer, 0, read);
+            } finally {
+                output.close();
+            }
+        } finally {
+            input.close();
+        }
+    }
+
+    @Test
+    public void shouldKeepThePrecedenceOfTheSources() {
+        Factory factory = ConfigFactory.newInstance();
+        factory.registerLoader(loader);
+        MappedConfig cfg = factory.create(MappedConfig.class,
+                new OwnerProperties(Collections.map("imported", "imported")));
+
+        assertEquals("mapped", cfg.name());
+        assertEquals(8080, cfg.port());
+        assertEquals("imported", cfg.imported());
+        assertEquals("default", cfg.missing());
+    }
+
+    @Test
+    public void shouldRemapTheIndexOnReload() throws IOException {
+        Factory factory = ConfigFactory.newInstance();
+        factory.registerLoader(loader);
+        MappedConfig cfg = factory.create(MappedConfig.class);
+        assertEquals("mapped", cfg.name());
+
+        save("name", "changed");
+        cfg.reload();
+
+        assertEquals("changed", cfg.name());
+        assertEquals(80, cfg.port());
+    }
+
+    @Test
+    public void shouldNotAcceptSmallFiles() throws IOException {
+        assertTrue(loader.accept(source.toURI().toURL()));
+        assertFalse(new MappedPropertiesLoader(indexes, Long.MAX_VALUE).accept(source.toURI().toURL()));
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner.loaders;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.aeonbits.owner.OwnerProperties;
+import org.junit.Test;
+
+/**
+ * @author Luigi R. Viggiano
+ */
+public class PropertiesParserTest {
+
+    private static void assertParsedAsProperties(String text) throws IOException {
+        Properties expected = new Properties();
+        expected.load(new ByteArrayInputStream(text.getBytes("ISO-8859-1")));
+        Map<String, Object> expectedMap = new HashMap<String, Object>();
+        for (String key : expected.stringPropertyNames())
+            expectedMap.put(key, expected.getProperty(key));
+
+        OwnerProperties result = new OwnerProperties();
+        PropertiesParser.parse(new ByteArrayInputStream(text.getBytes("ISO-8859-1")), result);
+        assertEquals(text, expectedMap, new HashMap<String, Object>(result));
+    }
+
+    @Test
+    public void shouldSplitKeysAndValues() throws IOException {
+        assertParsedAsProperties("a=1\nb:2\nc 3\n  d\t =  4  \ne\nf=\ng  :  = 5\nh==6\n");
+    }
+
+    @Test
+    public void shouldSkipCommentsAndBlankLines() throws IOException {
+        assertParsedAsProperties("# comment\n! comment \\\na=1\n\n   \n\t# indented comment\r\nb=2");
+    }
+
+    @Test
+    public void shouldJoinContinuedLines() throws IOException {
+        assertParsedAsProperties("a=one \\\n    two\\\r\n\tthree\nb=\\\\\nc=four\\\r\n# not a comment\nd=\\\\\\\ne");
+        assertParsedAsProperties("a=trailing\\");
+        assertParsedAsProperties("a=\\\n");
+    }
+
+    @Test
+    public void shouldConvertEscapes() throws IOException {
+        assertParsedAsProperties("k\\=ey\\:\\ x=\\t\\n\\r\\f\\u0041\\u00e8\\q\\\\\n\\#a=b\n");
+        assertParsedAsProperties("latin=èé\n");
+    }
+
+    @Test
+    public void shouldKeepTheLastValueOfDuplicatedKeys() throws IOException {
+        assertParsedAsProperties("a=1\na=2\n");
+    }
+
+    @Test
+    public void shouldReadLinesLongerThanTheBuffers() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5000; i++)
+            text.append("key").append(i).append('=').append(i).append("\\\n  value").append(i).append('\n');
+        for (int i = 0; i < 20000; i++)
+            text.append('x');
+        text.append("=long");
+        assertParsedAsProperties(text.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMalformedUnicodeEscapes() throws IOException {
+        PropertiesParser.parse(new ByteArrayInputStream("a=\\u00g1".getBytes("ISO-8859-1")), new OwnerProperties());
+    }
+
+}
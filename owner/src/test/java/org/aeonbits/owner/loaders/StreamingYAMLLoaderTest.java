@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner.loaders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.aeonbits.owner.OwnerProperties;
+import org.junit.Test;
+
+/**
+ * @author Luigi R. Viggiano
+ */
+public class StreamingYAMLLoaderTest {
+    private static final String DOCUMENT =
+            "foo:\n" +
+            "  bar: 1\n" +
+            "  baz: [a, b]\n" +
+            "  qux.quux: dotted\n" +
+            "foo.corge: merged\n" +
+            "empty: {}\n" +
+            "nothing:\n" +
+            "defaults: &defaults\n" +
+            "  host: localhost\n" +
+            "  port: 80\n" +
+            "copy: *defaults\n" +
+            "scalar: &name value\n" +
+            "alias: *name\n" +
+            "servers:\n" +
+            "  - host: google.com\n" +
+            "    port: 1234\n" +
+            "  - *defaults\n" +
+            "tagged: !!str 42\n";
+
+    private static OwnerProperties load(Loader loader, OwnerProperties result, InputStream input)
+            throws IOException {
+        try {
+            loader.load(result, input);
+        } finally {
+            input.close();
+        }
+        return result;
+    }
+
+    private static void assertLoadedAsYAMLLoader(String resource) throws IOException {
+        OwnerProperties expected = load(new YAMLLoader(), new OwnerProperties(),
+                StreamingYAMLLoaderTest.class.getResourceAsStream(resource));
+        OwnerProperties result = load(new StreamingYAMLLoader(), new OwnerProperties(),
+                StreamingYAMLLoaderTest.class.getResourceAsStream(resource));
+        assertEquals(new HashMap<String, Object>(expected), new HashMap<String, Object>(result));
+    }
+
+    private static InputStream document(String text) throws IOException {
+        return new ByteArrayInputStream(text.getBytes("UTF-8"));
+    }
+
+    @Test
+    public void shouldLoadTheSamePropertiesOfTheYAMLLoader() throws IOException {
+        assertLoadedAsYAMLLoader("/org/aeonbits/owner/yaml/default.yaml");
+        assertLoadedAsYAMLLoader("/org/aeonbits/owner/yaml/live.yaml");
+    }
+
+    @Test
+    public void shouldMergeTheDocumentAsTheYAMLLoader() throws IOException {
+        Map<String, Object> initial = new HashMap<String, Object>();
+        initial.put("foo.grault", "existing");
+        initial.put("foo.bar", "overridden");
+
+        OwnerProperties expected = new OwnerProperties();
+        expected.putAll(initial);
+        load(new YAMLLoader(), expected, document(DOCUMENT));
+        OwnerProperties result = new OwnerProperties();
+        result.putAll(initial);
+        load(new StreamingYAMLLoader(), result, document(DOCUMENT));
+
+        assertTrue(result.keySetRecursive().containsAll(expected.keySetRecursive()));
+        for (String key : expected.keySetRecursive())
+            if (!(expected.get(key) instanceof Map<?, ?>))
+                assertEquals(key, expected.get(key), result.get(key));
+        assertEquals("existing", result.get("foo.grault"));
+        assertEquals(1, result.get("foo.bar"));
+        assertEquals("dotted", result.get("foo.qux.quux"));
+        assertEquals("localhost", result.get("copy.host"));
+        assertEquals("value", result.get("alias"));
+        assertEquals("42", result.get("tagged"));
+    }
+
+    @Test
+    public void shouldConvertTheKeysToStrings() throws IOException {
+        OwnerProperties result = load(new StreamingYAMLLoader(), new OwnerProperties(),
+                document("1: one\ntrue:\n  2.5: nested\n"));
+        assertEquals("one", result.get("1"));
+        assertEquals("nested", result.get("true.2.5"));
+    }
+
+    @Test
+    public void shouldIgnoreDocumentsThatAreNotMappings() throws IOException {
+        OwnerProperties result = load(new StreamingYAMLLoader(), new OwnerProperties(), document("- a\n- b\n"));
+        assertEquals(0, result.size());
+        result = load(new StreamingYAMLLoader(), new OwnerProperties(), document(""));
+        assertEquals(0, result.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldRejectTheMergeKey() throws IOException {
+        load(new StreamingYAMLLoader(), new OwnerProperties(),
+                document("base: &base\n  a: 1\nderived:\n  <<: *base\n  b: 2\n"));
+    }
+
+}
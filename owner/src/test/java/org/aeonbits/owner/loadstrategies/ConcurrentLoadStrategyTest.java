@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner.loadstrategies;
+
+import static org.aeonbits.owner.Config.LoadType.FIRST;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.aeonbits.owner.Config;
+import org.aeonbits.owner.Config.LoadPolicy;
+import org.aeonbits.owner.Config.Sources;
+import org.aeonbits.owner.ConfigFactory;
+import org.aeonbits.owner.loadstrategies.MergeLoadStrategyTest.MergeConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Luigi R. Viggiano
+ */
+public class ConcurrentLoadStrategyTest {
+    private ExecutorService executor;
+
+    @Sources({"classpath:foo/bar/thisDoesntExists.properties",
+              "classpath:org/aeonbits/owner/second.properties",
+              "classpath:org/aeonbits/owner/first.properties"})
+    @LoadPolicy(FIRST)
+    interface FirstConfig extends Config {
+        String foo();
+        String baz();
+    }
+
+    @Before
+    public void before() {
+        executor = Executors.newFixedThreadPool(4);
+        ConfigFactory.setLoadExecutor(executor);
+    }
+
+    @After
+    public void after() {
+        ConfigFactory.setLoadExecutor(null);
+        executor.shutdown();
+    }
+
+    @Test
+    public void shouldMergeInTheSameOrderAsSequentially() {
+        MergeConfig cfg = ConfigFactory.create(MergeConfig.class);
+        assertEquals("first", cfg.foo());
+        assertEquals("second", cfg.bar());
+        assertEquals("third", cfg.qux());
+        assertNull(cfg.quux());
+        assertEquals("theDefaultValue", cfg.fubar());
+    }
+
+    @Test
+    public void shouldLoadTheFirstAvailableSource() {
+        FirstConfig cfg = ConfigFactory.create(FirstConfig.class);
+        assertEquals("second", cfg.foo());
+        assertNull(cfg.baz());
+    }
+
+    @Test
+    public void shouldCancelTheSourcesFollowingTheFirstAvailable() {
+        final List<Runnable> queued = new ArrayList<Runnable>();
+        ConfigFactory.setLoadExecutor(new Executor() {
+            private boolean started;
+
+            public void execute(Runnable command) {
+                if (started) {
+                    queued.add(command);
+                } else {
+                    started = true;
+                    command.run(); // the first available, as the missing classpath resources are not resolved
+                }
+            }
+        });
+
+        FirstConfig cfg = ConfigFactory.create(FirstConfig.class);
+        assertEquals("second", cfg.foo());
+        assertEquals(1, queued.size());
+        assertTrue(((Future<?>) queued.get(0)).isCancelled());
+    }
+
+    @Test
+    public void shouldLoadInTheCallerThreadWhenTheExecutorIsShutDown() {
+        executor.shutdown();
+        MergeConfig cfg = ConfigFactory.create(MergeConfig.class);
+        assertEquals("second", cfg.bar());
+    }
+
+}
@@ -10,16 +10,19 @@ package org.aeonbits.owner.reload;
 
 import static org.aeonbits.owner.UtilTest.fileFromURL;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.io.File;
 import java.net.MalformedURLException;
+import java.util.Set;
 
 import org.aeonbits.owner.Config;
 import org.aeonbits.owner.Config.Sources;
 import org.aeonbits.owner.ConfigFactory;
+import org.aeonbits.owner.Mutable;
 import org.aeonbits.owner.OwnerProperties;
 import org.aeonbits.owner.Reloadable;
 import org.aeonbits.owner.TestConstants;
@@ -74,6 +77,45 @@ public class ReloadTest implements TestConstants {
         assertEquals(Integer.valueOf(21), cfg.minimumAge());
     }
 
+    public interface ReloadMutableConfig extends Config, Reloadable, Mutable {
+        Integer minimumAge();
+    }
+
+    @Test
+    public void testReloadDoesNotBlockWritersWhileLoading() throws Throwable {
+        final ReloadMutableConfig[] cfg = new ReloadMutableConfig[1];
+        final boolean[] written = new boolean[1];
+        OwnerProperties props = new OwnerProperties(Collections.map("minimumAge", "18")) {
+            @Override
+            public Set<String> keySet() {
+                if (cfg[0] != null) {
+                    Thread writer = new Thread() {
+                        @Override
+                        public void run() {
+                            cfg[0].setProperty("minimumAge", "21");
+                            written[0] = true;
+                        }
+                    };
+                    writer.start();
+                    try {
+                        writer.join(5000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.keySet();
+            }
+        };
+
+        ReloadMutableConfig config = ConfigFactory.create(ReloadMutableConfig.class, props);
+        cfg[0] = config;
+        config.reload(); // the imports are read while reloading, the writer thread must not wait for the reload
+        cfg[0] = null;
+
+        assertTrue(written[0]);
+        assertEquals(Integer.valueOf(18), config.minimumAge());
+    }
+
     @After
     public void after() throws Throwable {
         target.delete();
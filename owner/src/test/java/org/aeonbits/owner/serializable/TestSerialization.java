@@ -31,7 +31,6 @@ import org.aeonbits.owner.OwnerProperties;
 import org.aeonbits.owner.TestConstants;
 import org.junit.After;
 import org.junit.Before;
-import org.junit.Ignore;
 import org.junit.Test;
 
 /**
@@ -67,8 +66,6 @@ public class TestSerialization implements TestConstants {
     }
 
     @Test
-    @Ignore
-    // Serialization doesn't work with caching
     public void testSerialization() throws IOException, ClassNotFoundException {
         MyConfig cfg = ConfigFactory.create(MyConfig.class, new OwnerProperties(map("foo", "bar")));
         assertEquals("someText", cfg.someText());
@@ -80,6 +77,8 @@ public class TestSerialization implements TestConstants {
         MyConfig deserialized = deserialize(target);
 
         assertEquals(cfg, deserialized);
+        assertEquals("someText", deserialized.someText());
+        assertArrayEquals(new String[] { "some", "array" }, deserialized.someArray());
     }
 
     private MyConfig deserialize(File target) throws IOException, ClassNotFoundException {
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner.typeconversion;
+
+import static org.aeonbits.owner.Config.DisableableFeature.RESULT_CACHING;
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Method;
+
+import org.aeonbits.owner.Config;
+import org.aeonbits.owner.Config.DisableFeature;
+import org.aeonbits.owner.ConfigFactory;
+import org.aeonbits.owner.Converter;
+import org.aeonbits.owner.Mutable;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Luigi R. Viggiano
+ */
+public class ConversionResolutionTest {
+    private ResolutionConfig cfg;
+
+    public static class Code {
+        private final String text;
+        private final String createdBy;
+
+        public Code(String text) {
+            Integer.parseInt(text); // only numeric codes are accepted by the constructor
+            this.text = text;
+            this.createdBy = "constructor";
+        }
+
+        private Code(String text, String createdBy) {
+            this.text = text;
+            this.createdBy = createdBy;
+        }
+
+        public static Code valueOf(String text) {
+            return new Code(text, "valueOf");
+        }
+    }
+
+    public static class CountingConverter implements Converter<Integer> {
+        static int instances = 0;
+
+        public CountingConverter() {
+            instances++;
+        }
+
+        public Integer convert(Method method, Object input) {
+            return Integer.valueOf((String) input) * 2;
+        }
+    }
+
+    @DisableFeature(RESULT_CACHING)
+    interface ResolutionConfig extends Config, Mutable {
+        @DefaultValue("123")
+        Code code();
+
+        @DefaultValue("21")
+        @ConverterClass(CountingConverter.class)
+        Integer doubled();
+    }
+
+    @Before
+    public void before() {
+        cfg = ConfigFactory.create(ResolutionConfig.class);
+    }
+
+    @Test
+    public void shouldFallBackWhenTheResolvedConversionFails() {
+        assertEquals("constructor", cfg.code().createdBy);
+
+        cfg.setProperty("code", "abc");
+        Code code = cfg.code();
+        assertEquals("abc", code.text);
+        assertEquals("valueOf", code.createdBy);
+
+        cfg.setProperty("code", "456");
+        assertEquals("constructor", cfg.code().createdBy);
+    }
+
+    @Test
+    public void shouldInstantiateConverterClassOnce() {
+        assertEquals(Integer.valueOf(42), cfg.doubled());
+        int instances = CountingConverter.instances;
+
+        cfg.setProperty("doubled", "5");
+        assertEquals(Integer.valueOf(10), cfg.doubled());
+        assertEquals(Integer.valueOf(10), cfg.doubled());
+        assertEquals(instances, CountingConverter.instances);
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2013, Luigi R. Viggiano
+ * All rights reserved.
+ *
+ * This software is distributable under the BSD license.
+ * See the terms of the BSD license in the documentation provided with this software.
+ */
+
+package org.aeonbits.owner.variableexpansion;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Method;
+
+import org.aeonbits.owner.Config;
+import org.aeonbits.owner.ConfigFactory;
+import org.aeonbits.owner.Converter;
+import org.aeonbits.owner.Mutable;
+import org.aeonbits.owner.OwnerProperties;
+import org.aeonbits.owner.Reloadable;
+import org.aeonbits.owner.util.Collections;
+import org.junit.Test;
+
+/**
+ * @author Luigi R. Viggiano
+ */
+public class DependentPropertiesTest {
+
+    public static class CountingConverter implements Converter<String> {
+        static int conversions = 0;
+
+        public String convert(Method method, Object input) {
+            conversions++;
+            return (String) input;
+        }
+    }
+
+    interface DependentConfig extends Config, Mutable, Reloadable {
+        @DefaultValue("${server.host}:${port}")
+        String address();
+
+        @DefaultValue("http://${address}/")
+        String url();
+
+        @Key("server.host")
+        @DefaultValue("localhost")
+        String host();
+
+        @DefaultValue("80")
+        String port();
+
+        @DefaultValue("unrelated")
+        @ConverterClass(CountingConverter.class)
+        String unrelated();
+    }
+
+    @Test
+    public void shouldInvalidateTheDependentProperties() {
+        DependentConfig cfg = ConfigFactory.create(DependentConfig.class);
+        assertEquals("http://localhost:80/", cfg.url());
+        assertEquals("localhost:80", cfg.address());
+
+        cfg.setProperty("port", "8080");
+        assertEquals("http://localhost:8080/", cfg.url());
+        assertEquals("localhost:8080", cfg.address());
+    }
+
+    @Test
+    public void shouldInvalidateOnlyTheChangedPropertiesOnReload() {
+        OwnerProperties imports = new OwnerProperties(Collections.map("server.host", "foobar.com"));
+        DependentConfig cfg = ConfigFactory.create(DependentConfig.class, imports);
+        assertEquals("http://foobar.com:80/", cfg.url());
+        assertEquals("unrelated", cfg.unrelated());
+        int conversions = CountingConverter.conversions;
+
+        imports.put("server.host", "owner.aeonbits.org");
+        cfg.reload();
+
+        assertEquals("http://owner.aeonbits.org:80/", cfg.url());
+        assertEquals("unrelated", cfg.unrelated());
+        assertEquals(conversions, CountingConverter.conversions);
+    }
+
+}